@@ -0,0 +1,75 @@
+package com.capstone.parser.service;
+
+import com.capstone.parser.config.DedupProperties;
+import com.capstone.parser.config.ElasticProperties;
+import com.capstone.parser.enums.FingerprintAlgorithm;
+import com.capstone.parser.model.Finding;
+import com.capstone.parser.model.RawJson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * De-dup identity of a finding: the binary fingerprint used for lookups and its hex
+ * form (computeHashForFinding), for each fingerprint algorithm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FingerprintBenchmark {
+
+    private static final int FINDINGS = 1024;
+
+    @Param({"MD5", "MURMUR3"})
+    public FingerprintAlgorithm algorithm;
+
+    private DeDupService deDupService;
+    private Finding[] findings;
+
+    @Setup
+    public void setUp() {
+        DedupProperties dedupProperties = new DedupProperties();
+        dedupProperties.setFingerprint(algorithm);
+        // Only the fingerprint engine is used; nothing here talks to ES.
+        deDupService = new DeDupService(null, null, new ElasticProperties(), null, dedupProperties, null, null);
+
+        findings = new Finding[FINDINGS];
+        for (int i = 0; i < FINDINGS; i++) {
+            Finding finding = new Finding();
+            finding.setTitle("Database query built from user-controlled sources #" + i);
+            finding.setToolAdditionalProperties(new RawJson("{\"number\":" + (i + 1) + "}"));
+            findings[i] = finding;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FINDINGS)
+    public void computeFingerprint(Blackhole bh) {
+        for (Finding finding : findings) {
+            bh.consume(deDupService.computeFingerprint(finding));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FINDINGS)
+    public void computeHashForFinding(Blackhole bh) {
+        for (Finding finding : findings) {
+            bh.consume(deDupService.computeHashForFinding(finding));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.capstone.parser.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GitHub state/severity mapping over the values seen in real alerts, including
+ * upper-case, unknown and missing ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StateSeverityMapperBenchmark {
+
+    private final String[] states = {"open", "dismissed", "fixed", "resolved", "auto_dismissed", "OPEN", null};
+    private final String[] dismissedReasons = {null, "false positive", "won't fix", "used in tests", "revoked", null, null};
+    private final String[] severities = {"critical", "high", "medium", "moderate", "low", "warning", "note", "error", "HIGH", null};
+
+    @Benchmark
+    @OperationsPerInvocation(7)
+    public void mapGitHubState(Blackhole bh) {
+        for (int i = 0; i < states.length; i++) {
+            bh.consume(StateSeverityMapper.mapGitHubState(states[i], dismissedReasons[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(10)
+    public void mapGitHubSeverity(Blackhole bh) {
+        for (String severity : severities) {
+            bh.consume(StateSeverityMapper.mapGitHubSeverity(severity));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.capstone.parser.service.processor;
+
+import com.capstone.parser.config.InputProperties;
+import com.capstone.parser.enums.ToolTypes;
+import com.capstone.parser.support.ParserFixture;
+import com.capstone.parser.support.SyntheticAlertGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * mapAlertToFinding of each tool over a fixed set of parsed alerts, and the streaming
+ * read that binds them. Reported per alert; run with -prof gc for the bytes allocated
+ * per alert.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    private static final int ALERTS = 10_000;
+
+    @Param({"CODE_SCAN", "DEPENDABOT", "SECRET_SCAN"})
+    public ToolTypes tool;
+
+    @SuppressWarnings("rawtypes")
+    private AbstractScanJobProcessorService processor;
+    private List<Object> alerts;
+    private AlertStreamReader reader;
+    private Path file;
+
+    @Setup
+    public void setUp() throws Exception {
+        ProcessorDependencies dependencies = ParserFixture.mappingOnlyDependencies();
+        switch (tool) {
+            case CODE_SCAN:
+                processor = new CodeScanJobProcessorService(dependencies);
+                break;
+            case DEPENDABOT:
+                processor = new DependabotScanJobProcessorService(dependencies);
+                break;
+            default:
+                processor = new SecretScanJobProcessorService(dependencies);
+                break;
+        }
+
+        file = Files.createTempFile("mapping-" + tool, ".json");
+        new SyntheticAlertGenerator(42).writeAlertFile(tool, ALERTS, 0.0, file);
+        reader = new AlertStreamReader(new ObjectMapper().registerModule(new BlackbirdModule()),
+            new AlertFileOpener(new InputProperties()));
+        alerts = new ArrayList<>(ALERTS);
+        reader.forEachAlert(file.toString(), processor.getAlertType(), (alert, properties, endOffset) -> alerts.add(alert));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ALERTS)
+    @SuppressWarnings("unchecked")
+    public void mapAlertToFinding(Blackhole bh) {
+        for (Object alert : alerts) {
+            bh.consume(processor.mapAlertToFinding(alert));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ALERTS)
+    @SuppressWarnings("unchecked")
+    public void readAlerts(Blackhole bh) throws Exception {
+        reader.forEachAlert(file.toString(), processor.getAlertType(), (alert, properties, endOffset) -> {
+            bh.consume(alert);
+            bh.consume(properties);
+        });
+    }
+}
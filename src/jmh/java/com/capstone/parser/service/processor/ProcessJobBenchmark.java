@@ -0,0 +1,107 @@
+package com.capstone.parser.service.processor;
+
+import com.capstone.parser.config.DedupProperties;
+import com.capstone.parser.config.ElasticProperties;
+import com.capstone.parser.config.ProcessingProperties;
+import com.capstone.parser.enums.ToolTypes;
+import com.capstone.parser.support.FakeElasticsearchServer;
+import com.capstone.parser.support.ParserFixture;
+import com.capstone.parser.support.SyntheticAlertGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A whole processJob over a synthetic alert file against the in-process ES stand-in:
+ * read, map, de-dup, bulk write and refresh. Scenarios:
+ *   NEW              - empty index, every alert becomes a new finding
+ *   UNCHANGED        - the file was processed before; the de-dup state is fetched from ES
+ *   UNCHANGED_CACHED - the same, with the warm de-dup cache of the previous job
+ * The ES round trips are local, so the result is the parser's own cost, not the cluster's.
+ * parallel switches between the sequential loop and mapping on the AlertMappingPool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g"})
+public class ProcessJobBenchmark {
+
+    public enum Scenario { NEW, UNCHANGED, UNCHANGED_CACHED }
+
+    @Param({"CODE_SCAN", "DEPENDABOT", "SECRET_SCAN"})
+    public ToolTypes tool;
+
+    @Param({"1000", "100000", "1000000"})
+    public int alerts;
+
+    @Param({"NEW", "UNCHANGED", "UNCHANGED_CACHED"})
+    public Scenario scenario;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private FakeElasticsearchServer elasticsearch;
+    private ParserFixture fixture;
+    private ScanJobProcessorService processor;
+    private Path alertFile;
+    private String esIndex;
+    private int run;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() throws Exception {
+        elasticsearch = new FakeElasticsearchServer();
+        DedupProperties dedupProperties = new DedupProperties();
+        dedupProperties.getCache().setEnabled(scenario == Scenario.UNCHANGED_CACHED);
+        dedupProperties.getCache().setMaxFindings(Math.max(alerts, dedupProperties.getCache().getMaxFindings()));
+        ProcessingProperties processingProperties = new ProcessingProperties();
+        processingProperties.getParallel().setEnabled(parallel);
+        fixture = new ParserFixture(elasticsearch.getUrl(), new ElasticProperties(), dedupProperties,
+            processingProperties);
+        processor = fixture.processorFor(tool);
+
+        alertFile = Files.createTempFile("process-job-" + tool + "-" + alerts, ".json");
+        new SyntheticAlertGenerator(42).writeAlertFile(tool, alerts, 0.05, alertFile);
+
+        esIndex = "bench-" + tool.name().toLowerCase();
+        if (scenario != Scenario.NEW) {
+            processor.processJob(alertFile.toString(), esIndex);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpIteration() {
+        if (scenario == Scenario.NEW) {
+            // A fresh index per run, so every alert is new again; the last one is dropped to bound memory.
+            elasticsearch.reset();
+            esIndex = "bench-" + tool.name().toLowerCase() + "-" + run++;
+        }
+    }
+
+    @Benchmark
+    public JobResult processJob() throws Exception {
+        return processor.processJob(alertFile.toString(), esIndex);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws Exception {
+        fixture.close();
+        elasticsearch.close();
+        Files.deleteIfExists(alertFile);
+    }
+}
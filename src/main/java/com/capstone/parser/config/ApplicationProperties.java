@@ -7,6 +7,10 @@ import org.springframework.stereotype.Component;
 @ConfigurationProperties(prefix = "parser.kafka")
 public class ApplicationProperties {
     private String topic;
+    private int concurrency = 1;
+    private boolean batchListener = false;
+    private int maxPollRecords = 50;
+    private int jobRetries = 2;
 
     // getters and setters
     public String getTopic() {
@@ -15,4 +19,47 @@ public class ApplicationProperties {
     public void setTopic(String topic) {
         this.topic = topic;
     }
+
+    /**
+     * Number of listener threads (one consumer each) in the parse container.
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Receive each poll as one batch and coalesce its events per tenant and tool.
+     */
+    public boolean isBatchListener() {
+        return batchListener;
+    }
+    public void setBatchListener(boolean batchListener) {
+        this.batchListener = batchListener;
+    }
+
+    /**
+     * Upper bound on the records in one batch (max.poll.records of the batch consumer).
+     * The files of one tenant and tool in a batch have to be parsed within
+     * parser.processing.timeouts.job.
+     */
+    public int getMaxPollRecords() {
+        return maxPollRecords;
+    }
+    public void setMaxPollRecords(int maxPollRecords) {
+        this.maxPollRecords = maxPollRecords;
+    }
+
+    /**
+     * How often a parse event whose job timed out (or, with the batch listener, failed) is
+     * redelivered before it is skipped.
+     */
+    public int getJobRetries() {
+        return jobRetries;
+    }
+    public void setJobRetries(int jobRetries) {
+        this.jobRetries = jobRetries;
+    }
 }
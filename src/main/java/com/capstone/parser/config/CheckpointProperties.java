@@ -0,0 +1,62 @@
+package com.capstone.parser.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "parser.checkpoint")
+public class CheckpointProperties {
+
+    /**
+     * Checkpoint long parse jobs, with either listener; the batch listener checkpoints each
+     * file of a coalesced group under its own event's ID.
+     */
+    private boolean enabled = true;
+
+    /**
+     * A checkpoint is written after at least this many alerts were de-duped since the last.
+     * Each one flushes the job's pending bulk writes first.
+     */
+    private int everyAlerts = 20_000;
+
+    /**
+     * Checkpoints of jobs that were never retried are dropped after this long.
+     */
+    private Duration retention = Duration.ofDays(1);
+
+    /**
+     * How often checkpoints older than the retention are dropped.
+     */
+    private Duration purgeInterval = Duration.ofHours(1);
+
+    // getters and setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getEveryAlerts() {
+        return everyAlerts;
+    }
+    public void setEveryAlerts(int everyAlerts) {
+        this.everyAlerts = everyAlerts;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+
+    public Duration getPurgeInterval() {
+        return purgeInterval;
+    }
+    public void setPurgeInterval(Duration purgeInterval) {
+        this.purgeInterval = purgeInterval;
+    }
+}
@@ -0,0 +1,119 @@
+package com.capstone.parser.config;
+
+import java.time.Duration;
+
+import com.capstone.parser.enums.DocumentIdStrategy;
+import com.capstone.parser.enums.FingerprintAlgorithm;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "parser.dedup")
+public class DedupProperties {
+
+    private final Cache cache = new Cache();
+
+    /**
+     * FINGERPRINT only finds documents that were written with fingerprint ids, so switch
+     * an existing tenant over only after re-keying its index (or on a fresh index).
+     */
+    private DocumentIdStrategy idStrategy = DocumentIdStrategy.RANDOM;
+    private int lookupBatchSize = 500;
+
+    /**
+     * With RANDOM ids the fingerprint only lives in memory, so the algorithm can be switched
+     * freely. With FINGERPRINT ids it is part of the _id; enable legacyIdLookup while moving
+     * from MD5 so documents written under MD5 ids are still found.
+     */
+    private FingerprintAlgorithm fingerprint = FingerprintAlgorithm.MURMUR3;
+    private boolean legacyIdLookup = false;
+
+    /**
+     * Skip mapping and comparing alerts whose JSON is identical to what an existing finding
+     * was last seen as. Findings stored before alert digests existed get theirs on the next
+     * scan (a one-off partial update each).
+     */
+    private boolean skipUnchangedAlerts = true;
+
+    // getters and setters
+    public Cache getCache() {
+        return cache;
+    }
+
+    public DocumentIdStrategy getIdStrategy() {
+        return idStrategy;
+    }
+    public void setIdStrategy(DocumentIdStrategy idStrategy) {
+        this.idStrategy = idStrategy;
+    }
+
+    public int getLookupBatchSize() {
+        return lookupBatchSize;
+    }
+    public void setLookupBatchSize(int lookupBatchSize) {
+        this.lookupBatchSize = lookupBatchSize;
+    }
+
+    public FingerprintAlgorithm getFingerprint() {
+        return fingerprint;
+    }
+    public void setFingerprint(FingerprintAlgorithm fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public boolean isLegacyIdLookup() {
+        return legacyIdLookup;
+    }
+    public void setLegacyIdLookup(boolean legacyIdLookup) {
+        this.legacyIdLookup = legacyIdLookup;
+    }
+
+    public boolean isSkipUnchangedAlerts() {
+        return skipUnchangedAlerts;
+    }
+    public void setSkipUnchangedAlerts(boolean skipUnchangedAlerts) {
+        this.skipUnchangedAlerts = skipUnchangedAlerts;
+    }
+
+    /**
+     * In-process cache of existing findings per (index, tool) that is reused across jobs.
+     * Updates only send changed fields, so a ticketId in a cached finding that is out of
+     * date is never written back. Off by default: nothing invalidates it when another
+     * instance writes the same (index, tool), so only enable it when one instance owns
+     * each tenant's events.
+     */
+    public static class Cache {
+        private boolean enabled = false;
+        private int maxEntries = 100;
+        private long maxFindings = 500_000;
+        private Duration ttl = Duration.ofMinutes(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public long getMaxFindings() {
+            return maxFindings;
+        }
+        public void setMaxFindings(long maxFindings) {
+            this.maxFindings = maxFindings;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.capstone.parser.config;
+
+import java.time.Duration;
+
+import com.capstone.parser.enums.RefreshPolicy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "parser.elastic")
+public class ElasticProperties {
+
+    private final Bulk bulk = new Bulk();
+    private final Scan scan = new Scan();
+    private final Refresh refresh = new Refresh();
+    private boolean provisionIndicesOnStartup = true;
+
+    // getters and setters
+    public Bulk getBulk() {
+        return bulk;
+    }
+
+    public Scan getScan() {
+        return scan;
+    }
+
+    public Refresh getRefresh() {
+        return refresh;
+    }
+
+    public boolean isProvisionIndicesOnStartup() {
+        return provisionIndicesOnStartup;
+    }
+    public void setProvisionIndicesOnStartup(boolean provisionIndicesOnStartup) {
+        this.provisionIndicesOnStartup = provisionIndicesOnStartup;
+    }
+
+    /**
+     * Thresholds for flushing buffered findings through the _bulk endpoint.
+     * Whichever is reached first triggers a flush.
+     */
+    public static class Bulk {
+        private int maxActions = 1000;
+        private long maxBytes = 5 * 1024 * 1024;
+        private Duration flushInterval = Duration.ofSeconds(5);
+
+        public int getMaxActions() {
+            return maxActions;
+        }
+        public void setMaxActions(int maxActions) {
+            this.maxActions = maxActions;
+        }
+
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+        public void setMaxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+        /**
+         * Zero turns the timer off: sessions then flush only on the size thresholds and
+         * when their job finishes.
+         */
+        public void setFlushInterval(Duration flushInterval) {
+            if (flushInterval == null || flushInterval.isNegative()) {
+                throw new IllegalArgumentException("parser.elastic.bulk.flush-interval must be zero or positive, got " + flushInterval);
+            }
+            this.flushInterval = flushInterval;
+        }
+    }
+
+    /**
+     * Paging of the point-in-time scan used to load existing findings for de-dup.
+     */
+    public static class Scan {
+        private int pageSize = 1000;
+        private Duration keepAlive = Duration.ofMinutes(1);
+
+        public int getPageSize() {
+            return pageSize;
+        }
+        public void setPageSize(int pageSize) {
+            this.pageSize = pageSize;
+        }
+
+        public Duration getKeepAlive() {
+            return keepAlive;
+        }
+        public void setKeepAlive(Duration keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+    }
+
+    /**
+     * How a job's writes are made searchable. WAIT_FOR and DEBOUNCED both finish the job
+     * only once its findings can be read back (read-your-writes for the runbook consumer).
+     * WAIT_FOR covers the shards of the final bulk request, which with single-shard tenant
+     * indices is every write of the job.
+     */
+    public static class Refresh {
+        private RefreshPolicy policy = RefreshPolicy.WAIT_FOR;
+        private Duration debounceWindow = Duration.ofSeconds(1);
+        // the index.refresh_interval of the tenant indices; how long NONE leaves writes unsearchable
+        private Duration indexRefreshInterval = Duration.ofSeconds(1);
+
+        public RefreshPolicy getPolicy() {
+            return policy;
+        }
+        public void setPolicy(RefreshPolicy policy) {
+            this.policy = policy;
+        }
+
+        public Duration getDebounceWindow() {
+            return debounceWindow;
+        }
+        public void setDebounceWindow(Duration debounceWindow) {
+            this.debounceWindow = debounceWindow;
+        }
+
+        public Duration getIndexRefreshInterval() {
+            return indexRefreshInterval;
+        }
+        public void setIndexRefreshInterval(Duration indexRefreshInterval) {
+            this.indexRefreshInterval = indexRefreshInterval;
+        }
+    }
+}
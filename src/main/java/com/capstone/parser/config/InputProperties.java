@@ -0,0 +1,35 @@
+package com.capstone.parser.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "parser.input")
+public class InputProperties {
+
+    /**
+     * Alert files of at least this many bytes (as stored, i.e. compressed size for .gz/.zst)
+     * are read through a memory mapping instead of read() calls.
+     */
+    private long mmapThreshold = 64 * 1024 * 1024;
+
+    /**
+     * Buffer of the gzip decompressor, in bytes.
+     */
+    private int gzipBufferSize = 64 * 1024;
+
+    // getters and setters
+    public long getMmapThreshold() {
+        return mmapThreshold;
+    }
+    public void setMmapThreshold(long mmapThreshold) {
+        this.mmapThreshold = mmapThreshold;
+    }
+
+    public int getGzipBufferSize() {
+        return gzipBufferSize;
+    }
+    public void setGzipBufferSize(int gzipBufferSize) {
+        this.gzipBufferSize = gzipBufferSize;
+    }
+}
@@ -0,0 +1,19 @@
+package com.capstone.parser.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Picked up by Spring Boot's ObjectMapper: alerts are bound and findings serialized
+     * through generated lambdas instead of reflective calls.
+     */
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
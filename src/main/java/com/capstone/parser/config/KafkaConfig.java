@@ -11,24 +11,55 @@ import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
 
 
 
+import java.time.Duration;
 import java.util.HashMap;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 
+import com.capstone.parser.service.KeyedJobDispatcher;
+
 @EnableKafka
 @Configuration
 public class KafkaConfig {
 
+    // Room on top of the job timeouts for polling, decoding and committing
+    private static final Duration POLL_INTERVAL_MARGIN = Duration.ofMinutes(1);
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    private final ApplicationProperties applicationProperties;
+    private final ProcessingProperties processingProperties;
+
+    public KafkaConfig(ApplicationProperties applicationProperties, ProcessingProperties processingProperties) {
+        this.applicationProperties = applicationProperties;
+        this.processingProperties = processingProperties;
+    }
+
+    /**
+     * max.poll.interval.ms for the parse listeners. A job's timeout starts once it runs, and
+     * it may first wait behind the jobs the other listener threads queued on its lane, each
+     * allowed the same timeout. So a listener call may take up to concurrency job timeouts,
+     * and the consumer must not be considered dead before that.
+     */
+    private int maxPollIntervalMs() {
+        Duration listenerCall = processingProperties.getTimeouts().getJob()
+            .multipliedBy(Math.max(1, applicationProperties.getConcurrency()))
+            .plus(KeyedJobDispatcher.START_GRACE);
+        return (int) Math.min(Integer.MAX_VALUE, listenerCall.plus(POLL_INTERVAL_MARGIN).toMillis());
+    }
+
     /**
      * Consumer Config
      */
@@ -36,23 +67,59 @@ public class KafkaConfig {
     public Map<String, Object> consumerConfigs() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        // We will consume everything as plain Strings
+        // String keys; values stay raw bytes and are parsed straight from the record by EventJsonCodec
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
         return props;
     }
 
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
-        // Consumer for <String, String>
+    public ConsumerFactory<String, byte[]> consumerFactory() {
+        // Consumer for <String, byte[]>
         return new DefaultKafkaConsumerFactory<>(consumerConfigs());
     }
 
+    /**
+     * Container factory for the single-event listener. Each poll returns one record, whose
+     * job may take up to the job timeout once it runs, and max.poll.interval.ms is sized to
+     * match. A
+     * job that timed out is redelivered (resuming from its checkpoint) up to job-retries times.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> kafkaListenerContainerFactory() {
+        Map<String, Object> props = new HashMap<>(consumerConfigs());
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 1);
+        props.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, maxPollIntervalMs());
+
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        // One consumer thread per unit of concurrency; ordering per index/tool is kept by KeyedJobDispatcher
+        factory.setConcurrency(applicationProperties.getConcurrency());
+        factory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(0L, applicationProperties.getJobRetries())));
+        return factory;
+    }
+
+    /**
+     * Container factory for the batch listener: each poll (up to max-poll-records) is
+     * handed over as one List. Its groups run in parallel, each of which must finish within
+     * one job timeout once it runs, so max-poll-records has to be small enough for the
+     * files of one tenant and tool in a poll to be parsed in that time.
+     */
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> batchKafkaListenerContainerFactory() {
+        Map<String, Object> props = new HashMap<>(consumerConfigs());
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, applicationProperties.getMaxPollRecords());
+        props.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, maxPollIntervalMs());
+
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        factory.setConcurrency(applicationProperties.getConcurrency());
+        factory.setBatchListener(true);
+        // The listener fails a poll with BatchListenerFailedException at the first record not
+        // completed; the records from there on are redelivered up to job-retries times.
+        factory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(0L, applicationProperties.getJobRetries())));
         return factory;
     }
 
@@ -63,24 +130,24 @@ public class KafkaConfig {
     public Map<String, Object> producerConfigs() {
         Map<String, Object> props = new HashMap<>();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        // We will produce everything as plain Strings
+        // String keys; values are the JSON bytes written by EventJsonCodec
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
         // Disable adding any type headers
-        // (not strictly needed with StringSerializer, but just to be sure)
+        // (not strictly needed with raw byte values, but just to be sure)
         props.put("spring.json.add.type.headers", false);
         return props;
     }
 
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
-        // Producer for <String, String>
+    public ProducerFactory<String, byte[]> producerFactory() {
+        // Producer for <String, byte[]>
         return new DefaultKafkaProducerFactory<>(producerConfigs());
     }
 
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
-        // KafkaTemplate for <String, String>
+    public KafkaTemplate<String, byte[]> kafkaTemplate() {
+        // KafkaTemplate for <String, byte[]>
         return new KafkaTemplate<>(producerFactory());
     }
 }
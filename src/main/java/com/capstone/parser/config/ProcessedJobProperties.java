@@ -0,0 +1,46 @@
+package com.capstone.parser.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "parser.processed-jobs")
+public class ProcessedJobProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * How long a processed job is remembered. A repeat of it within this time is answered
+     * with its recorded result instead of being parsed again.
+     */
+    private Duration ttl = Duration.ofDays(1);
+
+    /**
+     * How often jobs older than the TTL are deleted.
+     */
+    private Duration purgeInterval = Duration.ofHours(1);
+
+    // getters and setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public Duration getPurgeInterval() {
+        return purgeInterval;
+    }
+    public void setPurgeInterval(Duration purgeInterval) {
+        this.purgeInterval = purgeInterval;
+    }
+}
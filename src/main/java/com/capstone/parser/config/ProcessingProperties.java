@@ -0,0 +1,109 @@
+package com.capstone.parser.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "parser.processing")
+public class ProcessingProperties {
+
+    private final Timeouts timeouts = new Timeouts();
+    private final Parallel parallel = new Parallel();
+
+    // getters and setters
+    public Timeouts getTimeouts() {
+        return timeouts;
+    }
+
+    public Parallel getParallel() {
+        return parallel;
+    }
+
+    /**
+     * Upper bounds for the stages of a parse job. A stage that runs over is cancelled
+     * and the job fails (and is not acknowledged).
+     */
+    public static class Timeouts {
+        private Duration job = Duration.ofMinutes(30);
+        private Duration dedupFetch = Duration.ofMinutes(5);
+        private Duration bulkFlush = Duration.ofMinutes(2);
+        private Duration refresh = Duration.ofSeconds(30);
+        private Duration publish = Duration.ofSeconds(30);
+
+        public Duration getJob() {
+            return job;
+        }
+        public void setJob(Duration job) {
+            this.job = job;
+        }
+
+        public Duration getDedupFetch() {
+            return dedupFetch;
+        }
+        public void setDedupFetch(Duration dedupFetch) {
+            this.dedupFetch = dedupFetch;
+        }
+
+        public Duration getBulkFlush() {
+            return bulkFlush;
+        }
+        public void setBulkFlush(Duration bulkFlush) {
+            this.bulkFlush = bulkFlush;
+        }
+
+        public Duration getRefresh() {
+            return refresh;
+        }
+        public void setRefresh(Duration refresh) {
+            this.refresh = refresh;
+        }
+
+        public Duration getPublish() {
+            return publish;
+        }
+        public void setPublish(Duration publish) {
+            this.publish = publish;
+        }
+    }
+
+    /**
+     * Mapping and fingerprinting of alerts on a work-stealing pool, in chunks of
+     * parser.dedup.lookup-batch-size alerts, while the file is still being read.
+     * De-dup still runs chunk by chunk in file order.
+     */
+    public static class Parallel {
+        private boolean enabled = false;
+        private int parallelism = 0;
+        private int maxChunksInFlight = 0;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Worker threads of the mapping pool; 0 means one per available processor.
+         */
+        public int getParallelism() {
+            return parallelism;
+        }
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        /**
+         * Chunks a job may have read but not yet de-duped, which bounds its memory;
+         * 0 means twice the parallelism.
+         */
+        public int getMaxChunksInFlight() {
+            return maxChunksInFlight;
+        }
+        public void setMaxChunksInFlight(int maxChunksInFlight) {
+            this.maxChunksInFlight = maxChunksInFlight;
+        }
+    }
+}
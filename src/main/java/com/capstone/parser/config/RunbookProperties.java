@@ -0,0 +1,33 @@
+package com.capstone.parser.config;
+
+import com.capstone.parser.enums.RunbookReportMode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "parser.runbook")
+public class RunbookProperties {
+
+    private RunbookReportMode report = RunbookReportMode.ALL;
+
+    /**
+     * Upper bound on the finding ids carried by one RunbookJobEvent, in serialized bytes.
+     * Keep it well below the producer's max.request.size (1MB by default).
+     */
+    private int maxEventBytes = 512 * 1024;
+
+    // getters and setters
+    public RunbookReportMode getReport() {
+        return report;
+    }
+    public void setReport(RunbookReportMode report) {
+        this.report = report;
+    }
+
+    public int getMaxEventBytes() {
+        return maxEventBytes;
+    }
+    public void setMaxEventBytes(int maxEventBytes) {
+        this.maxEventBytes = maxEventBytes;
+    }
+}
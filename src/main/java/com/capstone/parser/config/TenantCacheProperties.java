@@ -0,0 +1,46 @@
+package com.capstone.parser.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "parser.tenant-cache")
+public class TenantCacheProperties {
+
+    private boolean preload = true;
+
+    /**
+     * After ttl a cached tenant is reloaded in the background; the cached copy keeps
+     * being served meanwhile, and for as long as MySQL cannot be reached.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * How long an unknown tenantId is answered from the cache before MySQL is asked again.
+     */
+    private Duration negativeTtl = Duration.ofSeconds(30);
+
+    // getters and setters
+    public boolean isPreload() {
+        return preload;
+    }
+    public void setPreload(boolean preload) {
+        this.preload = preload;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public Duration getNegativeTtl() {
+        return negativeTtl;
+    }
+    public void setNegativeTtl(Duration negativeTtl) {
+        this.negativeTtl = negativeTtl;
+    }
+}
@@ -0,0 +1,37 @@
+package com.capstone.parser.dto.alert;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * The fields of a GitHub code scanning alert that are mapped to a Finding.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record CodeScanAlert(
+        String state,
+        String url,
+        @JsonProperty("dismissed_reason") String dismissedReason,
+        Rule rule,
+        @JsonProperty("most_recent_instance") Instance mostRecentInstance) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Rule(
+            String id,
+            String name,
+            @JsonProperty("full_description") String fullDescription,
+            @JsonProperty("security_severity_level") String securitySeverityLevel,
+            String severity,
+            String help,
+            List<String> tags) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Instance(Location location) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Location(String path) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.capstone.parser.dto.alert;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * The fields of a GitHub Dependabot alert that are mapped to a Finding.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record DependabotAlert(
+        String state,
+        String url,
+        @JsonProperty("dismissed_reason") String dismissedReason,
+        @JsonProperty("security_advisory") SecurityAdvisory securityAdvisory,
+        Dependency dependency) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record SecurityAdvisory(
+            @JsonProperty("cve_id") String cveId,
+            String summary,
+            String description,
+            String severity,
+            List<Cwe> cwes,
+            Cvss cvss) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Cwe(@JsonProperty("cwe_id") String cweId) {
+    }
+
+    // Integer or decimal, as GitHub sent it, so the stored text matches the alert.
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Cvss(Number score) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Dependency(
+            @JsonProperty("manifest_path") String manifestPath,
+            @JsonProperty("package") Package pkg) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Package(String name) {
+    }
+}
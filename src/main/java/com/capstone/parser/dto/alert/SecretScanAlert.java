@@ -0,0 +1,15 @@
+package com.capstone.parser.dto.alert;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * The fields of a GitHub secret scanning alert that are mapped to a Finding.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record SecretScanAlert(
+        String state,
+        String url,
+        @JsonProperty("secret_type") String secretType,
+        @JsonProperty("secret_type_display_name") String secretTypeDisplayName) {
+}
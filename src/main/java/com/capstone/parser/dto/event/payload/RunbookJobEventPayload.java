@@ -6,6 +6,19 @@ public class RunbookJobEventPayload {
     private String tenantId;
     private List<String> findingIds;
 
+    // Per-category breakdown: which of findingIds are new / updated in this event,
+    // and the totals of the whole parse job (across all its chunks).
+    private List<String> newFindingIds;
+    private List<String> updatedFindingIds;
+    private int newCount;
+    private int updatedCount;
+    private int unchangedCount;
+
+    // A large job is split over several events; they share the parse event id.
+    private String parseEventId;
+    private int chunkIndex;
+    private int chunkCount = 1;
+
     public RunbookJobEventPayload() {}
 
     public RunbookJobEventPayload(String tenantId, List<String> findingIds) {
@@ -28,5 +41,68 @@ public class RunbookJobEventPayload {
     public void setFindingIds(List<String> findingIds) {
         this.findingIds = findingIds;
     }
-}
 
+    public List<String> getNewFindingIds() {
+        return newFindingIds;
+    }
+
+    public void setNewFindingIds(List<String> newFindingIds) {
+        this.newFindingIds = newFindingIds;
+    }
+
+    public List<String> getUpdatedFindingIds() {
+        return updatedFindingIds;
+    }
+
+    public void setUpdatedFindingIds(List<String> updatedFindingIds) {
+        this.updatedFindingIds = updatedFindingIds;
+    }
+
+    public int getNewCount() {
+        return newCount;
+    }
+
+    public void setNewCount(int newCount) {
+        this.newCount = newCount;
+    }
+
+    public int getUpdatedCount() {
+        return updatedCount;
+    }
+
+    public void setUpdatedCount(int updatedCount) {
+        this.updatedCount = updatedCount;
+    }
+
+    public int getUnchangedCount() {
+        return unchangedCount;
+    }
+
+    public void setUnchangedCount(int unchangedCount) {
+        this.unchangedCount = unchangedCount;
+    }
+
+    public String getParseEventId() {
+        return parseEventId;
+    }
+
+    public void setParseEventId(String parseEventId) {
+        this.parseEventId = parseEventId;
+    }
+
+    public int getChunkIndex() {
+        return chunkIndex;
+    }
+
+    public void setChunkIndex(int chunkIndex) {
+        this.chunkIndex = chunkIndex;
+    }
+
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    public void setChunkCount(int chunkCount) {
+        this.chunkCount = chunkCount;
+    }
+}
@@ -0,0 +1,6 @@
+package com.capstone.parser.enums;
+
+public enum DocumentIdStrategy {
+    RANDOM,         // random UUID per new finding; de-dup needs the tool's docs prefetched
+    FINGERPRINT     // _id derived from the de-dup hash; existing docs are looked up per batch
+}
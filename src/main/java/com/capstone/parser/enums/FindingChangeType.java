@@ -0,0 +1,7 @@
+package com.capstone.parser.enums;
+
+public enum FindingChangeType {
+    NEW,            // not in ES before the job
+    UPDATED,        // existed, and the job changed it
+    UNCHANGED       // existed as-is
+}
@@ -0,0 +1,6 @@
+package com.capstone.parser.enums;
+
+public enum FingerprintAlgorithm {
+    MD5,        // legacy identity, matches documents keyed before MURMUR3 existed
+    MURMUR3
+}
@@ -0,0 +1,7 @@
+package com.capstone.parser.enums;
+
+public enum RefreshPolicy {
+    NONE,           // no refresh; findings become searchable on the index's own refresh interval
+    WAIT_FOR,       // the job's final bulk request waits for the next refresh (refresh=wait_for)
+    DEBOUNCED       // one explicit refresh per index per window, shared by all jobs that asked for it
+}
@@ -0,0 +1,6 @@
+package com.capstone.parser.enums;
+
+public enum RunbookReportMode {
+    ALL,            // every processed finding, unchanged ones included
+    CHANGED         // only new and updated findings
+}
@@ -0,0 +1,123 @@
+package com.capstone.parser.kafka.consumer;
+
+import com.capstone.parser.config.ProcessingProperties;
+import com.capstone.parser.dto.ack.ParseAcknowledgement;
+import com.capstone.parser.dto.ack.payload.AcknowledgementEventPayload;
+import com.capstone.parser.dto.event.ParseRequestEvent;
+import com.capstone.parser.dto.event.RunbookJobEvent;
+import com.capstone.parser.enums.ToolTypes;
+import com.capstone.parser.service.AcknowledgementProducerService;
+import com.capstone.parser.service.JfcProducerService;
+import com.capstone.parser.service.ParserMetrics;
+import com.capstone.parser.service.RunbookJobEventFactory;
+import com.capstone.parser.service.processor.CodeScanJobProcessorService;
+import com.capstone.parser.service.processor.DependabotScanJobProcessorService;
+import com.capstone.parser.service.processor.JobResult;
+import com.capstone.parser.service.processor.ScanJobProcessorService;
+import com.capstone.parser.service.processor.SecretScanJobProcessorService;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The parts of handling a parse event shared by the single and batch listeners:
+ * picking the processor for a tool and publishing a finished job's runbook job and ack.
+ */
+@Component
+public class ParseJobHandler {
+
+    private final CodeScanJobProcessorService codeScanJobProcessorService;
+    private final DependabotScanJobProcessorService dependabotScanJobProcessorService;
+    private final SecretScanJobProcessorService secretScanJobProcessorService;
+    private final AcknowledgementProducerService acknowledgementProducerService;
+    private final JfcProducerService jfcProducerService;
+    private final RunbookJobEventFactory runbookJobEventFactory;
+    private final ParserMetrics metrics;
+    private final ProcessingProperties.Timeouts timeouts;
+
+    public ParseJobHandler(CodeScanJobProcessorService codeScanJobProcessorService,
+                           DependabotScanJobProcessorService dependabotScanJobProcessorService,
+                           SecretScanJobProcessorService secretScanJobProcessorService,
+                           AcknowledgementProducerService acknowledgementProducerService,
+                           JfcProducerService jfcProducerService,
+                           RunbookJobEventFactory runbookJobEventFactory,
+                           ParserMetrics metrics,
+                           ProcessingProperties processingProperties) {
+        this.codeScanJobProcessorService = codeScanJobProcessorService;
+        this.dependabotScanJobProcessorService = dependabotScanJobProcessorService;
+        this.secretScanJobProcessorService = secretScanJobProcessorService;
+        this.acknowledgementProducerService = acknowledgementProducerService;
+        this.jfcProducerService = jfcProducerService;
+        this.runbookJobEventFactory = runbookJobEventFactory;
+        this.metrics = metrics;
+        this.timeouts = processingProperties.getTimeouts();
+    }
+
+    /**
+     * The processor for a tool, or null if the tool is unknown.
+     */
+    public ScanJobProcessorService processorFor(ToolTypes tool) {
+        switch (tool) {
+            case CODE_SCAN:
+                return codeScanJobProcessorService;
+            case DEPENDABOT:
+                return dependabotScanJobProcessorService;
+            case SECRET_SCAN:
+                return secretScanJobProcessorService;
+            default:
+                System.err.println("Unknown tool type: " + tool);
+                return null;
+        }
+    }
+
+    /**
+     * Send the runbook job events for the job (if any), then the parse ack. The returned
+     * future completes once the broker acked all of them.
+     */
+    public CompletableFuture<Void> publishOutcome(ParseRequestEvent event, JobResult result) {
+        System.out.println("[ParseJobHandler] Job " + event.getEventId() + " => new=" + result.getNewCount()
+            + " updated=" + result.getUpdatedCount() + " unchanged=" + result.getUnchangedCount()
+            + " failed=" + result.getWriteFailures().size());
+
+        long publishStart = System.nanoTime();
+        // After processing, hand the reported IDs to the runbook, chunked if the job was large
+        List<CompletableFuture<?>> sends = new ArrayList<>();
+        for (RunbookJobEvent runbookEvent : runbookJobEventFactory.eventsFor(
+                event.getPayload().getTenantId(), event.getEventId(), result)) {
+            sends.add(jfcProducerService.publishRunbookJob(runbookEvent));
+        }
+
+        // Send parse ack once the runbook has everything
+        AcknowledgementEventPayload ackPayload = new AcknowledgementEventPayload(event.getEventId());
+        ParseAcknowledgement parseAck = new ParseAcknowledgement(null, ackPayload);
+        return CompletableFuture.allOf(sends.toArray(new CompletableFuture[0]))
+            .thenCompose(sent -> acknowledgementProducerService.publishAcknowledgement(parseAck))
+            .thenApply(ackSent -> {
+                metrics.recordStage("publish", result.getToolType(),
+                    System.nanoTime() - publishStart);
+                return null;
+            });
+    }
+
+    /**
+     * Block until the broker acked the records, so the job only completes once its output is out.
+     */
+    public void awaitPublish(CompletableFuture<?> send) throws Exception {
+        try {
+            send.get(timeouts.getPublish().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            send.cancel(true);
+            throw new TimeoutException("Kafka publish timed out after " + timeouts.getPublish());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
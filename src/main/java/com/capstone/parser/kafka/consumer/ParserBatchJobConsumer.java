@@ -0,0 +1,285 @@
+package com.capstone.parser.kafka.consumer;
+
+import com.capstone.parser.config.ProcessingProperties;
+import com.capstone.parser.dto.event.ParseRequestEvent;
+import com.capstone.parser.dto.event.payload.ParseRequestEventPayload;
+import com.capstone.parser.enums.ToolTypes;
+import com.capstone.parser.model.Tenant;
+import com.capstone.parser.service.DeDupService;
+import com.capstone.parser.service.EventJsonCodec;
+import com.capstone.parser.service.JobCheckpointService;
+import com.capstone.parser.service.ParserMetrics;
+import com.capstone.parser.service.ProcessedJobRegistry;
+import com.capstone.parser.service.KeyedJobDispatcher;
+import com.capstone.parser.service.TenantCache;
+import com.capstone.parser.service.processor.JobResult;
+import com.capstone.parser.service.processor.ScanJobProcessorService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Batch listener mode (parser.kafka.batch-listener): receives every record of a poll at
+ * once and coalesces the events per tenant and tool, so a burst for one tenant costs one
+ * tenant lookup, one index check, one de-dup fetch, one bulk session and one refresh per
+ * tool instead of one per file. When a tenant has several tools in the batch their
+ * de-dup states are loaded together with _msearch. Every event still gets its own
+ * runbook job and ack, and each file is checkpointed under its event's ID. If a group
+ * fails or times out, the other groups are cancelled and the poll is redelivered from
+ * the first record that was not completed, each file resuming from its last checkpoint.
+ * Jobs are recorded in the {@link ProcessedJobRegistry}, and events it knows as repeats
+ * are answered with their recorded result instead of being parsed again, as in the
+ * single-event listener.
+ */
+@Component
+@ConditionalOnProperty(prefix = "parser.kafka", name = "batch-listener", havingValue = "true")
+public class ParserBatchJobConsumer {
+
+    private final TenantCache tenantCache;
+    private final DeDupService deDupService;
+    private final KeyedJobDispatcher jobDispatcher;
+    private final ParseJobHandler jobHandler;
+    private final ParserMetrics metrics;
+    private final ProcessingProperties.Timeouts timeouts;
+    private final EventJsonCodec eventJsonCodec;
+    private final ProcessedJobRegistry processedJobs;
+    private final JobCheckpointService checkpoints;
+
+    public ParserBatchJobConsumer(TenantCache tenantCache,
+                                  DeDupService deDupService,
+                                  KeyedJobDispatcher jobDispatcher,
+                                  ParseJobHandler jobHandler,
+                                  ParserMetrics metrics,
+                                  ProcessingProperties processingProperties,
+                                  EventJsonCodec eventJsonCodec,
+                                  ProcessedJobRegistry processedJobs,
+                                  JobCheckpointService checkpoints) {
+        this.tenantCache = tenantCache;
+        this.deDupService = deDupService;
+        this.jobDispatcher = jobDispatcher;
+        this.jobHandler = jobHandler;
+        this.metrics = metrics;
+        this.timeouts = processingProperties.getTimeouts();
+        this.eventJsonCodec = eventJsonCodec;
+        this.processedJobs = processedJobs;
+        this.checkpoints = checkpoints;
+    }
+
+    @KafkaListener(
+        topics = "${parser.kafka.topic}",
+        containerFactory = "batchKafkaListenerContainerFactory",
+        groupId = "parser-consumer-group"
+    )
+    public void consumeParseEvents(@Payload List<byte[]> messages) {
+        // Group by tenant and tool, keeping arrival order within each group.
+        Map<String, Tenant> tenants = new HashMap<>();
+        Map<GroupKey, List<ParseRequestEvent>> groups = new LinkedHashMap<>();
+        // Position in the poll of each group's first record; a failed group is retried from there.
+        Map<GroupKey, Integer> firstRecords = new HashMap<>();
+        for (int i = 0; i < messages.size(); i++) {
+            try {
+                ParseRequestEvent event = eventJsonCodec.readParseRequest(messages.get(i));
+                ParseRequestEventPayload payload = event.getPayload();
+                String tenantId = payload.getTenantId();
+
+                if (!tenants.containsKey(tenantId)) {
+                    tenants.put(tenantId, tenantCache.resolve(tenantId));
+                }
+                Tenant tenant = tenants.get(tenantId);
+                if (tenant == null) {
+                    System.err.println("Tenant not found for tenantId=" + tenantId);
+                    continue;
+                }
+                GroupKey key = new GroupKey(tenantId, tenant.getEsIndex(), payload.getTool());
+                groups.computeIfAbsent(key, k -> new ArrayList<>()).add(event);
+                firstRecords.putIfAbsent(key, i);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        if (groups.isEmpty()) {
+            return;
+        }
+
+        Map<String, Set<ToolTypes>> prefetched = prefetchMultiToolIndices(groups.keySet());
+        try {
+            // One job per group, on the lane for its index/tool.
+            Map<GroupKey, KeyedJobDispatcher.LaneJob<Void>> jobs = new LinkedHashMap<>();
+            for (Map.Entry<GroupKey, List<ParseRequestEvent>> group : groups.entrySet()) {
+                GroupKey key = group.getKey();
+                List<ParseRequestEvent> events = group.getValue();
+                jobs.put(key, jobDispatcher.submit(key.esIndex(), key.tool(), () -> {
+                    processGroup(key, events);
+                    return null;
+                }));
+            }
+
+            // Wait for every group, so the batch's offsets are only committed once it is done.
+            // The groups run in parallel, each within one job timeout from when it started.
+            // Once a group failed, the ones still running are cancelled.
+            GroupKey failedGroup = null;
+            Throwable failure = null;
+            for (Map.Entry<GroupKey, KeyedJobDispatcher.LaneJob<Void>> job : jobs.entrySet()) {
+                if (failure != null) {
+                    job.getValue().cancel(true);
+                    continue;
+                }
+                try {
+                    job.getValue().get(timeouts.getJob());
+                } catch (TimeoutException e) {
+                    failedGroup = job.getKey();
+                    failure = e;
+                } catch (ExecutionException e) {
+                    failedGroup = job.getKey();
+                    failure = e.getCause();
+                }
+            }
+            if (failure != null) {
+                throw failedBatch(failedGroup, failure, jobs, firstRecords);
+            }
+        } finally {
+            for (Map.Entry<String, Set<ToolTypes>> entry : prefetched.entrySet()) {
+                deDupService.discardPrefetchedStates(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * The error to fail the poll with once a group failed: it points the container's error
+     * handler at the earliest record of any group that did not complete, so the records
+     * before it are committed and everything from it on is redelivered (up to job-retries
+     * times). Groups that did complete are answered from the {@link ProcessedJobRegistry}
+     * when their records come around again.
+     */
+    private BatchListenerFailedException failedBatch(GroupKey failedGroup, Throwable failure,
+                                                     Map<GroupKey, KeyedJobDispatcher.LaneJob<Void>> jobs,
+                                                     Map<GroupKey, Integer> firstRecords) {
+        int retryFrom = Integer.MAX_VALUE;
+        int unfinished = 0;
+        for (Map.Entry<GroupKey, KeyedJobDispatcher.LaneJob<Void>> job : jobs.entrySet()) {
+            if (job.getValue().state() != Future.State.SUCCESS) {
+                retryFrom = Math.min(retryFrom, firstRecords.get(job.getKey()));
+                unfinished++;
+            }
+        }
+        System.err.println("[ParserBatchJobConsumer] Jobs for " + failedGroup + " failed; " + unfinished
+            + " groups not completed, redelivering from record " + retryFrom + ": " + failure.getMessage());
+        return new BatchListenerFailedException("[ParserBatchJobConsumer] Jobs for " + failedGroup + " failed",
+            failure, retryFrom);
+    }
+
+    /**
+     * For tenants with more than one tool in the batch, load the tools' de-dup states in
+     * one scan. A failure here only costs the jobs their own fetch.
+     *
+     * @return the tools per index a prefetch was attempted for
+     */
+    private Map<String, Set<ToolTypes>> prefetchMultiToolIndices(Set<GroupKey> keys) {
+        Map<String, Set<ToolTypes>> toolsByIndex = new LinkedHashMap<>();
+        for (GroupKey key : keys) {
+            toolsByIndex.computeIfAbsent(key.esIndex(), i -> EnumSet.noneOf(ToolTypes.class)).add(key.tool());
+        }
+        for (Map.Entry<String, Set<ToolTypes>> entry : toolsByIndex.entrySet()) {
+            if (entry.getValue().size() < 2) {
+                continue;
+            }
+            try {
+                deDupService.prefetchDedupStates(entry.getKey(), entry.getValue());
+            } catch (Exception e) {
+                System.err.println("[ParserBatchJobConsumer] Prefetch for index=" + entry.getKey()
+                    + " failed: " + e.getMessage());
+            }
+        }
+        return toolsByIndex;
+    }
+
+    private void processGroup(GroupKey key, List<ParseRequestEvent> events) throws Exception {
+        ScanJobProcessorService processor = jobHandler.processorFor(key.tool());
+        if (processor == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        JobResult[] results = new JobResult[events.size()];
+        // A redelivered event, or a new one for the same file as the last job, is answered
+        // with the recorded result; so is a second copy of an event within this poll.
+        Map<String, Integer> firstByEventId = new HashMap<>();
+        List<Integer> toProcess = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            ParseRequestEvent event = events.get(i);
+            if (firstByEventId.putIfAbsent(event.getEventId(), i) != null) {
+                continue;
+            }
+            JobResult repeat = processedJobs.isEnabled()
+                ? processedJobs.findRepeat(event.getEventId(), key.tenantId(), key.tool(), key.esIndex(),
+                    event.getPayload().getFilePath())
+                : null;
+            if (repeat != null) {
+                System.out.println("[ParserBatchJobConsumer] Job " + event.getEventId()
+                    + " repeats a processed job; publishing its recorded result");
+                metrics.recordRepeatedJob(key.tool(), key.esIndex());
+                results[i] = repeat;
+            } else {
+                toProcess.add(i);
+            }
+        }
+
+        if (!toProcess.isEmpty()) {
+            List<String> jobIds = new ArrayList<>(toProcess.size());
+            List<String> filePaths = new ArrayList<>(toProcess.size());
+            for (int i : toProcess) {
+                jobIds.add(events.get(i).getEventId());
+                filePaths.add(events.get(i).getPayload().getFilePath());
+            }
+            // Each file is checkpointed under its event's ID, so a redelivery resumes every file where it stopped.
+            List<JobResult> processed = processor.processJobs(jobIds, filePaths, key.esIndex());
+            for (int j = 0; j < toProcess.size(); j++) {
+                results[toProcess.get(j)] = processed.get(j);
+            }
+        }
+
+        List<CompletableFuture<Void>> published = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            ParseRequestEvent event = events.get(i);
+            JobResult result = results[i] != null ? results[i] : results[firstByEventId.get(event.getEventId())];
+            published.add(jobHandler.publishOutcome(event, result));
+        }
+        jobHandler.awaitPublish(CompletableFuture.allOf(published.toArray(new CompletableFuture[0])));
+        if (processedJobs.isEnabled()) {
+            for (int i : toProcess) {
+                ParseRequestEvent event = events.get(i);
+                processedJobs.record(event.getEventId(), key.tenantId(), event.getPayload().getFilePath(), results[i]);
+            }
+        }
+        if (checkpoints.isEnabled()) {
+            for (int i : toProcess) {
+                String eventId = events.get(i).getEventId();
+                try {
+                    checkpoints.complete(eventId);
+                } catch (Exception e) {
+                    System.err.println("[ParserBatchJobConsumer] Could not drop checkpoint of job " + eventId
+                        + ": " + e.getMessage());
+                }
+            }
+        }
+        if (!toProcess.isEmpty()) {
+            metrics.recordStage("job", key.tool(), System.nanoTime() - start);
+        }
+    }
+
+    private record GroupKey(String tenantId, String esIndex, ToolTypes tool) {
+    }
+}
@@ -1,55 +1,58 @@
 package com.capstone.parser.kafka.consumer;
 
-import com.capstone.parser.dto.ack.ParseAcknowledgement;
-import com.capstone.parser.dto.ack.payload.AcknowledgementEventPayload;
+import com.capstone.parser.config.ProcessingProperties;
 import com.capstone.parser.dto.event.ParseRequestEvent;
-import com.capstone.parser.dto.event.RunbookJobEvent;
 import com.capstone.parser.dto.event.payload.ParseRequestEventPayload;
-import com.capstone.parser.dto.event.payload.RunbookJobEventPayload;
 import com.capstone.parser.enums.ToolTypes;
 import com.capstone.parser.model.Tenant;
-import com.capstone.parser.repository.TenantRepository;
-import com.capstone.parser.service.AcknowledgementProducerService;
-import com.capstone.parser.service.ElasticSearchService;
-import com.capstone.parser.service.JfcProducerService;
-import com.capstone.parser.service.ParserContextHolder;
-import com.capstone.parser.service.processor.CodeScanJobProcessorService;
-import com.capstone.parser.service.processor.DependabotScanJobProcessorService;
-import com.capstone.parser.service.processor.SecretScanJobProcessorService;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.capstone.parser.service.EventJsonCodec;
+import com.capstone.parser.service.JobCheckpointService;
+import com.capstone.parser.service.ParserMetrics;
+import com.capstone.parser.service.ProcessedJobRegistry;
+import com.capstone.parser.service.KeyedJobDispatcher;
+import com.capstone.parser.service.TenantCache;
+import com.capstone.parser.service.processor.JobResult;
+import com.capstone.parser.service.processor.ScanJobProcessorService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-import java.util.UUID;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * Handles one parse event per listener call. Replaced by {@link ParserBatchJobConsumer}
+ * when parser.kafka.batch-listener is on.
+ */
 @Component
+@ConditionalOnProperty(prefix = "parser.kafka", name = "batch-listener", havingValue = "false", matchIfMissing = true)
 public class ParserJobConsumer {
 
-    private final CodeScanJobProcessorService codeScanJobProcessorService;
-    private final DependabotScanJobProcessorService dependabotScanJobProcessorService;
-    private final SecretScanJobProcessorService secretScanJobProcessorService;
-    private final TenantRepository tenantRepository;
-    private final AcknowledgementProducerService acknowledgementProducerService;
-    private final JfcProducerService jfcProducerService;
-    private final ElasticSearchService elasticSearchService;
+    private final TenantCache tenantCache;
+    private final KeyedJobDispatcher jobDispatcher;
+    private final ParseJobHandler jobHandler;
+    private final ParserMetrics metrics;
+    private final ProcessingProperties.Timeouts timeouts;
+    private final EventJsonCodec eventJsonCodec;
+    private final JobCheckpointService checkpoints;
+    private final ProcessedJobRegistry processedJobs;
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
-
-    public ParserJobConsumer(CodeScanJobProcessorService codeScanJobProcessorService,
-                             DependabotScanJobProcessorService dependabotScanJobProcessorService,
-                             SecretScanJobProcessorService secretScanJobProcessorService,
-                             TenantRepository tenantRepository,
-                             AcknowledgementProducerService acknowledgementProducerService,
-                             JfcProducerService jfcProducerService, ElasticSearchService elasticSearchService) {
-        this.codeScanJobProcessorService = codeScanJobProcessorService;
-        this.dependabotScanJobProcessorService = dependabotScanJobProcessorService;
-        this.secretScanJobProcessorService = secretScanJobProcessorService;
-        this.tenantRepository = tenantRepository;
-        this.acknowledgementProducerService = acknowledgementProducerService;
-        this.jfcProducerService = jfcProducerService;
-        this.elasticSearchService = elasticSearchService;
+    public ParserJobConsumer(TenantCache tenantCache,
+                             KeyedJobDispatcher jobDispatcher,
+                             ParseJobHandler jobHandler,
+                             ParserMetrics metrics,
+                             ProcessingProperties processingProperties,
+                             EventJsonCodec eventJsonCodec,
+                             JobCheckpointService checkpoints,
+                             ProcessedJobRegistry processedJobs) {
+        this.tenantCache = tenantCache;
+        this.jobDispatcher = jobDispatcher;
+        this.jobHandler = jobHandler;
+        this.metrics = metrics;
+        this.timeouts = processingProperties.getTimeouts();
+        this.eventJsonCodec = eventJsonCodec;
+        this.checkpoints = checkpoints;
+        this.processedJobs = processedJobs;
     }
 
     @KafkaListener(
@@ -57,53 +60,81 @@ public class ParserJobConsumer {
         containerFactory = "kafkaListenerContainerFactory",
         groupId = "parser-consumer-group"
     )
-    public void consumeParseEvent(@Payload String message) {
+    public void consumeParseEvent(@Payload byte[] message) {
+        KeyedJobDispatcher.LaneJob<Void> job;
+        ParseRequestEvent event;
         try {
-            ParseRequestEvent event = objectMapper.readValue(message, ParseRequestEvent.class);
+            event = eventJsonCodec.readParseRequest(message);
             ParseRequestEventPayload payload = event.getPayload();
             ToolTypes tool = payload.getTool();
             String tenantId = payload.getTenantId();
-            String filePath = payload.getFilePath();
 
-            Tenant tenant = tenantRepository.findByTenantId(tenantId);
+            Tenant tenant = tenantCache.resolve(tenantId);
             if (tenant == null) {
                 System.err.println("Tenant not found for tenantId=" + tenantId);
                 return;
             }
 
-            switch (tool) {
-                case CODE_SCAN:
-                    codeScanJobProcessorService.processJob(filePath, tenant.getEsIndex());
-                    break;
-                case DEPENDABOT:
-                    dependabotScanJobProcessorService.processJob(filePath, tenant.getEsIndex());
-                    break;
-                case SECRET_SCAN:
-                    secretScanJobProcessorService.processJob(filePath, tenant.getEsIndex());
-                    break;
-                default:
-                    System.err.println("Unknown tool type: " + tool);
-                    break;
-            }
-
-            // After processing, gather changed IDs
-            List<String> allFindingIds = ParserContextHolder.getChangedFindingIds();
-            if (allFindingIds != null && !allFindingIds.isEmpty()) {
-                RunbookJobEventPayload runbookPayload = new RunbookJobEventPayload(tenantId, allFindingIds);
-                RunbookJobEvent runbookEvent = new RunbookJobEvent(runbookPayload);
-                runbookEvent.setEventId(UUID.randomUUID().toString());
-                jfcProducerService.publishRunbookJob(runbookEvent);
-            }
-
-            // Send parse ack
-            AcknowledgementEventPayload ackPayload = new AcknowledgementEventPayload(event.getEventId());
-            ParseAcknowledgement parseAck = new ParseAcknowledgement(null, ackPayload);
-            acknowledgementProducerService.publishAcknowledgement(parseAck);
+            // Run on the lane for this index/tool, so jobs of other tenants proceed in parallel
+            // but two jobs never touch the same de-dup state at once. Waiting here keeps the
+            // offset from being committed before the job is done; the job timeout only starts
+            // once the job runs, not while it waits behind an earlier job of its lane.
+            job = jobDispatcher.submit(tenant.getEsIndex(), tool, () -> {
+                processEvent(event, tenant);
+                return null;
+            });
+        } catch (Exception e) {
+            e.printStackTrace();
+            return;
+        }
 
+        try {
+            job.get(timeouts.getJob());
+        } catch (TimeoutException e) {
+            // Cancelled and not acked: the container redelivers the event, which resumes from
+            // the job's checkpoint.
+            throw new IllegalStateException("[ParserJobConsumer] Job " + event.getEventId() + " was cancelled: "
+                + e.getMessage(), e);
         } catch (Exception e) {
             e.printStackTrace();
-        } finally {
-            ParserContextHolder.clear();
         }
     }
+
+    private void processEvent(ParseRequestEvent event, Tenant tenant) throws Exception {
+        ParseRequestEventPayload payload = event.getPayload();
+        ScanJobProcessorService processor = jobHandler.processorFor(payload.getTool());
+        if (processor == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        // A redelivered event, or a new one for the same file as the last job, is answered
+        // with the recorded result without touching ES.
+        if (processedJobs.isEnabled()) {
+            JobResult repeat = processedJobs.findRepeat(event.getEventId(), payload.getTenantId(), payload.getTool(),
+                tenant.getEsIndex(), payload.getFilePath());
+            if (repeat != null) {
+                System.out.println("[ParserJobConsumer] Job " + event.getEventId()
+                    + " repeats a processed job; publishing its recorded result");
+                jobHandler.awaitPublish(jobHandler.publishOutcome(event, repeat));
+                metrics.recordRepeatedJob(payload.getTool(), tenant.getEsIndex());
+                return;
+            }
+        }
+
+        // Checkpointed under the event's ID, so a redelivery of this event resumes where it stopped.
+        JobResult result = processor.processJob(event.getEventId(), payload.getFilePath(), tenant.getEsIndex());
+        jobHandler.awaitPublish(jobHandler.publishOutcome(event, result));
+        if (processedJobs.isEnabled()) {
+            processedJobs.record(event.getEventId(), payload.getTenantId(), payload.getFilePath(), result);
+        }
+        if (checkpoints.isEnabled()) {
+            try {
+                checkpoints.complete(event.getEventId());
+            } catch (Exception e) {
+                System.err.println("[ParserJobConsumer] Could not drop checkpoint of job " + event.getEventId()
+                    + ": " + e.getMessage());
+            }
+        }
+        metrics.recordStage("job", payload.getTool(), System.nanoTime() - start);
+    }
 }
@@ -1,7 +1,6 @@
 package com.capstone.parser.model;
 
 import java.util.List;
-import java.util.Map;
 
 import com.capstone.parser.enums.ToolTypes;
 
@@ -30,10 +29,12 @@ public class Finding {
 
     private String ticketId;
 
+    private String alertDigest;
+
     private String createdAt;
     private String updatedAt;
 
-    private Map<String, Object> toolAdditionalProperties;
+    private RawJson toolAdditionalProperties;
 
     // Getters and setters ...
     public String getId() {
@@ -141,10 +142,13 @@ public class Finding {
         this.componentVersion = componentVersion;
     }
 
-    public Map<String, Object> getToolAdditionalProperties() {
+    /**
+     * The whole GitHub alert, kept as raw JSON.
+     */
+    public RawJson getToolAdditionalProperties() {
         return toolAdditionalProperties;
     }
-    public void setToolAdditionalProperties(Map<String, Object> toolAdditionalProperties) {
+    public void setToolAdditionalProperties(RawJson toolAdditionalProperties) {
         this.toolAdditionalProperties = toolAdditionalProperties;
     }
     public String getCreatedAt() {
@@ -159,6 +163,15 @@ public class Finding {
     public void setUpdatedAt(String updatedAt) {
         this.updatedAt = updatedAt;
     }
+    /**
+     * Digest of the alert JSON this finding was last seen as (see DeDupService#computeAlertDigest).
+     */
+    public String getAlertDigest() {
+        return alertDigest;
+    }
+    public void setAlertDigest(String alertDigest) {
+        this.alertDigest = alertDigest;
+    }
     public String getTicketId() {
         return ticketId;
     }
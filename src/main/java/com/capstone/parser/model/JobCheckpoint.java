@@ -0,0 +1,90 @@
+package com.capstone.parser.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * How far a parse job got: alerts of filePath up to alertsDone are de-duped and written
+ * to ES. The IDs they produced are in the job's {@link JobCheckpointSegment}s.
+ */
+@Entity
+@Table(name = "job_checkpoints")
+public class JobCheckpoint {
+
+    @Id
+    @Column(name = "event_id", nullable = false)
+    private String eventId;
+
+    @Column(name = "file_path", nullable = false, length = 1024)
+    private String filePath;
+
+    @Column(name = "es_index")
+    private String esIndex;
+
+    @Column(name = "alerts_done")
+    private long alertsDone;
+
+    // Byte offset in the file right after the last de-duped alert; -1 for compressed files
+    @Column(name = "byte_offset")
+    private long byteOffset;
+
+    @Column(name = "segments")
+    private int segments;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public JobCheckpoint() {
+    }
+
+    // Getters & Setters
+
+    public String getEventId() {
+        return eventId;
+    }
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+
+    public String getEsIndex() {
+        return esIndex;
+    }
+    public void setEsIndex(String esIndex) {
+        this.esIndex = esIndex;
+    }
+
+    public long getAlertsDone() {
+        return alertsDone;
+    }
+    public void setAlertsDone(long alertsDone) {
+        this.alertsDone = alertsDone;
+    }
+
+    public long getByteOffset() {
+        return byteOffset;
+    }
+    public void setByteOffset(long byteOffset) {
+        this.byteOffset = byteOffset;
+    }
+
+    public int getSegments() {
+        return segments;
+    }
+    public void setSegments(int segments) {
+        this.segments = segments;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,61 @@
+package com.capstone.parser.model;
+
+import jakarta.persistence.*;
+
+/**
+ * The finding IDs a job produced between two checkpoints, in file order. Each checkpoint
+ * only appends its own segment, so a large job never rewrites the IDs it saved before.
+ */
+@Entity
+@Table(name = "job_checkpoint_segments",
+    indexes = @Index(name = "idx_job_checkpoint_segments_event", columnList = "event_id, seq"))
+public class JobCheckpointSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private String eventId;
+
+    @Column(name = "seq", nullable = false)
+    private int seq;
+
+    // One "<N|U|S><findingId>" line per finding (new, updated, same)
+    @Lob
+    @Column(name = "changes", columnDefinition = "LONGTEXT")
+    private String changes;
+
+    public JobCheckpointSegment() {
+    }
+
+    // Getters & Setters
+
+    public Long getId() {
+        return id;
+    }
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public int getSeq() {
+        return seq;
+    }
+    public void setSeq(int seq) {
+        this.seq = seq;
+    }
+
+    public String getChanges() {
+        return changes;
+    }
+    public void setChanges(String changes) {
+        this.changes = changes;
+    }
+}
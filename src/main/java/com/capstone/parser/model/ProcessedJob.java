@@ -0,0 +1,104 @@
+package com.capstone.parser.model;
+
+import com.capstone.parser.enums.ToolTypes;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A parse job whose outcome was published: the event, the digest of the file it parsed
+ * and the finding changes it reported to the runbook.
+ */
+@Entity
+@Table(name = "processed_jobs",
+    indexes = @Index(name = "idx_processed_jobs_tenant_tool", columnList = "tenant_id, tool, processed_at"))
+public class ProcessedJob {
+
+    @Id
+    @Column(name = "event_id", nullable = false)
+    private String eventId;
+
+    @Column(name = "tenant_id", nullable = false)
+    private String tenantId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tool", nullable = false)
+    private ToolTypes tool;
+
+    @Column(name = "es_index")
+    private String esIndex;
+
+    @Column(name = "file_digest", nullable = false, length = 64)
+    private String fileDigest;
+
+    @Column(name = "file_size")
+    private long fileSize;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    // One "<N|U|S><findingId>" line per finding (new, updated, same)
+    @Lob
+    @Column(name = "changes", columnDefinition = "LONGTEXT")
+    private String changes;
+
+    public ProcessedJob() {
+    }
+
+    // Getters & Setters
+
+    public String getEventId() {
+        return eventId;
+    }
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public ToolTypes getTool() {
+        return tool;
+    }
+    public void setTool(ToolTypes tool) {
+        this.tool = tool;
+    }
+
+    public String getEsIndex() {
+        return esIndex;
+    }
+    public void setEsIndex(String esIndex) {
+        this.esIndex = esIndex;
+    }
+
+    public String getFileDigest() {
+        return fileDigest;
+    }
+    public void setFileDigest(String fileDigest) {
+        this.fileDigest = fileDigest;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+    public void setFileSize(long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+    public void setProcessedAt(LocalDateTime processedAt) {
+        this.processedAt = processedAt;
+    }
+
+    public String getChanges() {
+        return changes;
+    }
+    public void setChanges(String changes) {
+        this.changes = changes;
+    }
+}
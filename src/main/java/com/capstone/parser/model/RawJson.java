@@ -0,0 +1,158 @@
+package com.capstone.parser.model;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A JSON value kept as its text instead of a Map tree. It is written into documents
+ * as-is (raw) and read back by copying the tokens of the value, so an alert blob is
+ * never bound to maps and lists on its way from the scanner file to ES and back.
+ */
+@JsonSerialize(using = RawJson.Serializer.class)
+@JsonDeserialize(using = RawJson.Deserializer.class)
+public final class RawJson {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final ObjectReader TREE_READER = new ObjectMapper(JSON_FACTORY).reader()
+        .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+    // Numbers match by value, so 1, 1.0 and 1e0 are the same number.
+    private static final Comparator<JsonNode> NUMBERS_BY_VALUE = (a, b) ->
+        a.isNumber() && b.isNumber() ? a.decimalValue().compareTo(b.decimalValue()) : (a.equals(b) ? 0 : 1);
+
+    private final String json;
+
+    public RawJson(String json) {
+        this.json = json;
+    }
+
+    /**
+     * The value of a top-level field of this JSON object if it is a scalar (number, string
+     * or boolean), or null if it is missing, null or a nested structure. The text is only
+     * scanned up to the field.
+     */
+    public Object getScalar(String field) {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!field.equals(name)) {
+                    parser.skipChildren();
+                    continue;
+                }
+                switch (value) {
+                    case VALUE_NUMBER_INT:
+                    case VALUE_NUMBER_FLOAT:
+                        return parser.getNumberValue();
+                    case VALUE_STRING:
+                        return parser.getText();
+                    case VALUE_TRUE:
+                    case VALUE_FALSE:
+                        return parser.getBooleanValue();
+                    default:
+                        return null;
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Invalid raw JSON", e);
+        }
+    }
+
+    /**
+     * The top-level fields of this JSON object with their values as raw JSON, in document
+     * order; empty if this is not an object.
+     */
+    public Map<String, RawJson> getFields() {
+        Map<String, RawJson> fields = new LinkedHashMap<>();
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return fields;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                StringWriter out = new StringWriter();
+                try (JsonGenerator gen = JSON_FACTORY.createGenerator(out)) {
+                    gen.copyCurrentStructure(parser);
+                }
+                fields.put(name, new RawJson(out.toString()));
+            }
+            return fields;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Invalid raw JSON", e);
+        }
+    }
+
+    /**
+     * Whether the other holds the same JSON value, whatever the key order, whitespace or
+     * number format of either text. {@link #equals} compares the text.
+     */
+    public boolean sameValueAs(RawJson other) {
+        if (other == null) {
+            return false;
+        }
+        if (json.equals(other.json)) {
+            return true;
+        }
+        try {
+            return TREE_READER.readTree(json).equals(NUMBERS_BY_VALUE, TREE_READER.readTree(other.json));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Invalid raw JSON", e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof RawJson other && json.equals(other.json);
+    }
+
+    @Override
+    public int hashCode() {
+        return json.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return json;
+    }
+
+    public static class Serializer extends JsonSerializer<RawJson> {
+        @Override
+        public void serialize(RawJson value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeRawValue(value.json);
+        }
+    }
+
+    public static class Deserializer extends JsonDeserializer<RawJson> {
+        @Override
+        public RawJson deserialize(JsonParser parser, DeserializationContext ctxt) throws IOException {
+            StringWriter out = new StringWriter();
+            try (JsonGenerator gen = JSON_FACTORY.createGenerator(out)) {
+                gen.copyCurrentStructure(parser);
+            }
+            return new RawJson(out.toString());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.capstone.parser.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.capstone.parser.model.JobCheckpoint;
+
+
+@Repository
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+
+    List<JobCheckpoint> findByUpdatedAtBefore(LocalDateTime cutoff);
+}
@@ -0,0 +1,25 @@
+package com.capstone.parser.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.capstone.parser.model.JobCheckpointSegment;
+
+
+@Repository
+public interface JobCheckpointSegmentRepository extends JpaRepository<JobCheckpointSegment, Long> {
+
+    List<JobCheckpointSegment> findByEventIdOrderBySeq(String eventId);
+
+    // One bulk delete, without loading the segments first
+    @Modifying
+    @Transactional
+    @Query("delete from JobCheckpointSegment s where s.eventId = :eventId")
+    void deleteByEventId(@Param("eventId") String eventId);
+}
@@ -0,0 +1,35 @@
+package com.capstone.parser.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.capstone.parser.enums.ToolTypes;
+import com.capstone.parser.model.ProcessedJob;
+
+
+@Repository
+public interface ProcessedJobRepository extends JpaRepository<ProcessedJob, String> {
+
+    // Only the columns needed to tell whether a file repeats the job, not its change list
+    ProcessedJobSummary findFirstByTenantIdAndToolOrderByProcessedAtDesc(String tenantId, ToolTypes tool);
+
+    // One bulk delete, without loading the rows and their change lists first
+    @Modifying
+    @Transactional
+    @Query("delete from ProcessedJob j where j.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    interface ProcessedJobSummary {
+        String getEventId();
+        String getEsIndex();
+        String getFileDigest();
+        long getFileSize();
+        LocalDateTime getProcessedAt();
+    }
+}
@@ -1,11 +1,13 @@
 package com.capstone.parser.service;
 
 import com.capstone.parser.dto.ack.Acknowledgement;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Produces a JSON-based acknowledgement (ParseAcknowledgement or ScanRequestAcknowledgement)
  * to the 'job-ack' topic, so JFC can update the job status.
@@ -16,26 +18,26 @@ public class AcknowledgementProducerService {
     @Value("job-acknowledgement-topic")
     private String ackTopic;  // the topic name from your config
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final EventJsonCodec eventJsonCodec;
 
-    public AcknowledgementProducerService(KafkaTemplate<String, String> kafkaTemplate) {
+    public AcknowledgementProducerService(KafkaTemplate<String, byte[]> kafkaTemplate, EventJsonCodec eventJsonCodec) {
         this.kafkaTemplate = kafkaTemplate;
-        this.objectMapper = new ObjectMapper();
+        this.eventJsonCodec = eventJsonCodec;
     }
 
     /**
      * Publishes the given acknowledgement to the job_ack topic.
      * The 'ack' can be either a ParseAcknowledgement or ScanRequestAcknowledgement, 
-     * or any other Acknowledgement<T>.
+     * or any other Acknowledgement<T>. The returned future completes once the broker acked it.
      */
-    public void publishAcknowledgement(Acknowledgement<?> ack) {
+    public CompletableFuture<SendResult<String, byte[]>> publishAcknowledgement(Acknowledgement<?> ack) {
         try {
             // Convert the Acknowledgement object to JSON
-            String ackJson = objectMapper.writeValueAsString(ack);
+            byte[] ackJson = eventJsonCodec.writeAcknowledgement(ack);
 
             // Send to Kafka
-            kafkaTemplate.send(ackTopic, ackJson)
+            return kafkaTemplate.send(ackTopic, ackJson)
                 .whenComplete((result, ex) -> {
                     if (ex != null) {
                         System.err.println("[AcknowledgementProducerService] Failed to send ack: " 
@@ -49,6 +51,7 @@ public class AcknowledgementProducerService {
         } catch (Exception e) {
             System.err.println("[AcknowledgementProducerService] Error serializing ack: " + e.getMessage());
             e.printStackTrace();
+            return CompletableFuture.failedFuture(e);
         }
     }
 }
@@ -0,0 +1,82 @@
+package com.capstone.parser.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+
+import com.capstone.parser.config.ElasticProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands out per-job {@link BulkSession}s and runs the background timer that flushes
+ * sessions whose buffered writes are older than parser.elastic.bulk.flush-interval
+ * (no timer when that is zero).
+ */
+@Service
+public class BulkIndexService {
+
+    private final ElasticsearchClient esClient;
+    private final ObjectMapper objectMapper;
+    private final ElasticProperties.Bulk limits;
+    private final ElasticProperties.Refresh refresh;
+    private final ParserMetrics metrics;
+
+    private final Set<BulkSession> openSessions = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "es-bulk-flusher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public BulkIndexService(ElasticsearchClient esClient, ObjectMapper objectMapper,
+                            ElasticProperties elasticProperties, ParserMetrics metrics) {
+        this.esClient = esClient;
+        this.objectMapper = objectMapper;
+        this.limits = elasticProperties.getBulk();
+        this.refresh = elasticProperties.getRefresh();
+        this.metrics = metrics;
+
+        long intervalNanos = limits.getFlushInterval().toNanos();
+        if (intervalNanos <= 0) {
+            System.out.println("[BulkIndexService] flush-interval is " + limits.getFlushInterval()
+                + "; sessions flush only on size and when their job finishes");
+            return;
+        }
+        flusher.scheduleWithFixedDelay(() -> {
+            for (BulkSession session : openSessions) {
+                try {
+                    session.flushIfOlderThan(intervalNanos);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        }, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Start buffering writes for one job against the given index.
+     */
+    public BulkSession openSession(String esIndex) {
+        BulkSession session = new BulkSession(esClient, objectMapper, this, esIndex, limits, refresh.getPolicy(), metrics);
+        openSessions.add(session);
+        return session;
+    }
+
+    void release(BulkSession session) {
+        openSessions.remove(session);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        for (BulkSession session : openSessions) {
+            session.finish();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.capstone.parser.service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Outcome of a {@link BulkSession}: how many operations ES accepted, which ones failed,
+ * and which creates found their document already there.
+ */
+public class BulkResult {
+
+    private final int succeeded;
+    private final List<Failure> failures;
+    private final boolean refreshed;
+    private final Set<String> alreadyExisting;
+
+    public BulkResult(int succeeded, List<Failure> failures) {
+        this(succeeded, failures, false);
+    }
+
+    public BulkResult(int succeeded, List<Failure> failures, boolean refreshed) {
+        this(succeeded, failures, refreshed, Set.of());
+    }
+
+    public BulkResult(int succeeded, List<Failure> failures, boolean refreshed, Set<String> alreadyExisting) {
+        this.succeeded = succeeded;
+        this.failures = List.copyOf(failures);
+        this.refreshed = refreshed;
+        this.alreadyExisting = Set.copyOf(alreadyExisting);
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public List<Failure> getFailures() {
+        return failures;
+    }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    /**
+     * Whether the session's final request waited for a refresh (refresh policy WAIT_FOR).
+     */
+    public boolean isRefreshed() {
+        return refreshed;
+    }
+
+    /**
+     * Ids whose create was rejected because the document exists (409); not failures.
+     */
+    public Set<String> getAlreadyExisting() {
+        return alreadyExisting;
+    }
+
+    public Set<String> failedIds() {
+        Set<String> ids = new HashSet<>();
+        for (Failure failure : failures) {
+            ids.add(failure.id());
+        }
+        return ids;
+    }
+
+    /**
+     * A single bulk item that ES rejected (or that could not be sent at all).
+     */
+    public record Failure(String id, String reason) {
+    }
+}
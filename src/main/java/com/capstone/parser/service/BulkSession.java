@@ -0,0 +1,285 @@
+package com.capstone.parser.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.OperationType;
+import co.elastic.clients.json.JsonData;
+import co.elastic.clients.util.BinaryData;
+import co.elastic.clients.util.ContentType;
+
+import com.capstone.parser.config.ElasticProperties;
+import com.capstone.parser.enums.RefreshPolicy;
+import com.capstone.parser.model.Finding;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buffers the writes of a single parse job for one ES index and sends them through
+ * the _bulk endpoint once the action count, byte size or age threshold is reached.
+ * Obtain one from {@link BulkIndexService#openSession(String)} and call {@link #finish()}
+ * at the end of the job to flush the remainder and collect per-item failures.
+ * With refresh policy WAIT_FOR that last request is sent with refresh=wait_for.
+ *
+ * Requests are sent while holding a ReentrantLock rather than a monitor, so a job on a
+ * virtual thread that waits on ES does not pin its carrier thread.
+ */
+public class BulkSession implements AutoCloseable {
+
+    private final ElasticsearchClient esClient;
+    private final ObjectMapper objectMapper;
+    private final BulkIndexService owner;
+    private final String esIndex;
+    private final ElasticProperties.Bulk limits;
+    private final RefreshPolicy refreshPolicy;
+    private final ParserMetrics metrics;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<BulkOperation> pending = new ArrayList<>();
+    private long pendingBytes;
+    private long oldestPendingNanos;
+
+    private final List<BulkResult.Failure> failures = new ArrayList<>();
+    private final Set<String> alreadyExisting = new HashSet<>();
+    private int succeeded;
+    private BulkResult result;
+
+    BulkSession(ElasticsearchClient esClient, ObjectMapper objectMapper, BulkIndexService owner,
+                String esIndex, ElasticProperties.Bulk limits, RefreshPolicy refreshPolicy,
+                ParserMetrics metrics) {
+        this.esClient = esClient;
+        this.objectMapper = objectMapper;
+        this.owner = owner;
+        this.esIndex = esIndex;
+        this.limits = limits;
+        this.refreshPolicy = refreshPolicy;
+        this.metrics = metrics;
+    }
+
+    public String getEsIndex() {
+        return esIndex;
+    }
+
+    /**
+     * Queue a full index (create or overwrite) of the finding under its current id.
+     * The document is serialized right away, so later changes to the object are not sent.
+     */
+    public void index(Finding finding) throws IOException {
+        byte[] doc = objectMapper.writeValueAsBytes(finding);
+        BinaryData data = BinaryData.of(doc, ContentType.APPLICATION_JSON);
+        String id = finding.getId();
+        add(BulkOperation.of(op -> op.index(i -> i.index(esIndex).id(id).document(data))), doc.length);
+    }
+
+    /**
+     * Queue a create of the finding under its current id. If a document with that id
+     * already exists (another writer got there first) it is left as is; the id is then
+     * reported in {@link BulkResult#getAlreadyExisting()} instead of as a failure.
+     * The document is serialized right away, so later changes to the object are not sent.
+     */
+    public void create(Finding finding) throws IOException {
+        byte[] doc = objectMapper.writeValueAsBytes(finding);
+        BinaryData data = BinaryData.of(doc, ContentType.APPLICATION_JSON);
+        String id = finding.getId();
+        add(BulkOperation.of(op -> op.create(c -> c.index(esIndex).id(id).document(data))), doc.length);
+    }
+
+    /**
+     * Queue a partial update of an existing document: only the given fields are sent and
+     * merged into the stored source, so fields owned by other writers are left alone.
+     */
+    public void update(String id, Map<String, Object> fields) throws IOException {
+        update(id, fields, null);
+    }
+
+    /**
+     * As {@link #update(String, Map)}, but with a version only applied if the document
+     * is still at it; a conflict is reported as a failure of the id.
+     */
+    public void update(String id, Map<String, Object> fields, DocVersion ifVersion) throws IOException {
+        int bytes = objectMapper.writeValueAsBytes(fields).length;
+        Map<String, Object> doc = new LinkedHashMap<>(fields);
+        add(BulkOperation.of(op -> op.update(u -> {
+            u.index(esIndex).id(id).action(a -> a.doc(doc));
+            if (ifVersion != null) {
+                u.ifSeqNo(ifVersion.seqNo()).ifPrimaryTerm(ifVersion.primaryTerm());
+            }
+            return u;
+        })), bytes);
+    }
+
+    /**
+     * Queue an update of an existing document by a stored-source script with the given
+     * params, for changes a partial doc cannot express (replacing or removing keys of an
+     * object field instead of merging into it).
+     */
+    public void updateByScript(String id, String source, Map<String, Object> params) throws IOException {
+        updateByScript(id, source, params, null);
+    }
+
+    /**
+     * As {@link #updateByScript(String, String, Map)}, only applied if the document is
+     * still at the given version (when not null).
+     */
+    public void updateByScript(String id, String source, Map<String, Object> params,
+                               DocVersion ifVersion) throws IOException {
+        int bytes = source.length() + objectMapper.writeValueAsBytes(params).length;
+        Map<String, JsonData> scriptParams = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> param : params.entrySet()) {
+            scriptParams.put(param.getKey(), JsonData.of(param.getValue()));
+        }
+        add(BulkOperation.of(op -> op.update(u -> {
+            u.index(esIndex).id(id).action(a -> a.script(s -> s.source(source).params(scriptParams)));
+            if (ifVersion != null) {
+                u.ifSeqNo(ifVersion.seqNo()).ifPrimaryTerm(ifVersion.primaryTerm());
+            }
+            return u;
+        })), bytes);
+    }
+
+    private void add(BulkOperation operation, int bytes) {
+        lock.lock();
+        try {
+            if (result != null) {
+                throw new IllegalStateException("Bulk session for index=" + esIndex + " is already finished");
+            }
+            if (pending.isEmpty()) {
+                oldestPendingNanos = System.nanoTime();
+            }
+            pending.add(operation);
+            pendingBytes += bytes;
+
+            if (pending.size() >= limits.getMaxActions() || pendingBytes >= limits.getMaxBytes()) {
+                flush(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Send everything buffered now and wait for it.
+     *
+     * @return whether every write of this session so far went through
+     */
+    public boolean flushNow() {
+        lock.lock();
+        try {
+            flush(false);
+            return failures.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Called periodically by {@link BulkIndexService} so a slow producer does not keep
+     * writes buffered longer than the configured flush interval. Skipped while the job
+     * itself holds the session; the next tick catches up.
+     */
+    void flushIfOlderThan(long maxAgeNanos) {
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            if (!pending.isEmpty() && System.nanoTime() - oldestPendingNanos >= maxAgeNanos) {
+                flush(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Send everything buffered as one _bulk request; returns whether it was sent with
+     * refresh=wait_for and went through. Called with the lock held.
+     */
+    private boolean flush(boolean waitForRefresh) {
+        if (pending.isEmpty()) {
+            return false;
+        }
+        List<BulkOperation> batch = new ArrayList<>(pending);
+        pending.clear();
+        pendingBytes = 0;
+
+        try {
+            long start = System.nanoTime();
+            BulkResponse response = metrics.timeEsRequest("bulk", () -> esClient.bulk(BulkRequest.of(b -> {
+                b.operations(batch);
+                if (waitForRefresh) {
+                    b.refresh(Refresh.WaitFor);
+                }
+                return b;
+            })));
+            int batchFailures = 0;
+            for (BulkResponseItem item : response.items()) {
+                if (item.operationType() == OperationType.Create && item.status() == 409) {
+                    alreadyExisting.add(item.id());
+                } else if (item.error() != null) {
+                    failures.add(new BulkResult.Failure(item.id(),
+                        item.error().type() + ": " + item.error().reason()));
+                    batchFailures++;
+                } else {
+                    succeeded++;
+                }
+            }
+            System.out.println("[BulkSession] Flushed " + batch.size() + " ops to index=" + esIndex
+                + " in " + (System.nanoTime() - start) / 1_000_000 + "ms, failures=" + batchFailures);
+            return waitForRefresh;
+        } catch (Exception e) {
+            // The whole request failed; every operation in it is reported as failed.
+            System.err.println("[BulkSession] Bulk request to index=" + esIndex + " failed: " + e.getMessage());
+            for (BulkOperation op : batch) {
+                failures.add(new BulkResult.Failure(idOf(op), e.getMessage()));
+            }
+            return false;
+        }
+    }
+
+    private static String idOf(BulkOperation op) {
+        if (op.isIndex()) {
+            return op.index().id();
+        }
+        if (op.isUpdate()) {
+            return op.update().id();
+        }
+        if (op.isCreate()) {
+            return op.create().id();
+        }
+        return op.isDelete() ? op.delete().id() : null;
+    }
+
+    /**
+     * Flush everything still buffered and return the outcome of the whole session.
+     * Safe to call more than once.
+     */
+    public BulkResult finish() {
+        lock.lock();
+        try {
+            if (result == null) {
+                boolean refreshed = flush(refreshPolicy == RefreshPolicy.WAIT_FOR);
+                result = new BulkResult(succeeded, failures, refreshed, alreadyExisting);
+                owner.release(this);
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        finish();
+    }
+}
@@ -1,77 +1,462 @@
 package com.capstone.parser.service;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.Time;
 import co.elastic.clients.elasticsearch._types.query_dsl.MatchQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
-import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.MgetResponse;
+import co.elastic.clients.elasticsearch.core.MsearchResponse;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.get.GetResult;
+import co.elastic.clients.elasticsearch.core.mget.MultiGetResponseItem;
+import co.elastic.clients.elasticsearch.core.msearch.MultiSearchItem;
+import co.elastic.clients.elasticsearch.core.msearch.MultiSearchResponseItem;
+import co.elastic.clients.elasticsearch.core.msearch.RequestItem;
+import co.elastic.clients.elasticsearch.core.search.Hit;
 
+import com.capstone.parser.config.DedupProperties;
+import com.capstone.parser.config.ElasticProperties;
+import com.capstone.parser.enums.DocumentIdStrategy;
+import com.capstone.parser.enums.FingerprintAlgorithm;
 import com.capstone.parser.enums.ToolTypes;
 import com.capstone.parser.model.Finding;
+import com.capstone.parser.model.RawJson;
+import com.capstone.parser.service.fingerprint.Fingerprint;
+import com.capstone.parser.service.fingerprint.FingerprintEngine;
+import com.capstone.parser.service.fingerprint.FingerprintMap;
+import com.capstone.parser.service.fingerprint.Md5FingerprintEngine;
+import com.capstone.parser.service.fingerprint.Murmur3Hasher128;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 @Service
 public class DeDupService {
 
+    /**
+     * Sets params.fields on the document, then replaces the params.set keys of the alert
+     * blob and removes the params.unset ones.
+     */
+    static final String BLOB_UPDATE_SCRIPT =
+        "for (e in params.fields.entrySet()) { ctx._source[e.getKey()] = e.getValue(); }"
+            + " def blob = ctx._source.toolAdditionalProperties;"
+            + " if (!(blob instanceof Map)) { blob = new HashMap(); ctx._source.toolAdditionalProperties = blob; }"
+            + " for (e in params.set.entrySet()) { blob[e.getKey()] = e.getValue(); }"
+            + " for (k in params.unset) { blob.remove(k); }";
+
     private final ElasticsearchClient esClient;
-    private final ElasticSearchService elasticSearchService;
+    private final TenantIndexManager tenantIndexManager;
+    private final ElasticProperties.Scan scanProperties;
+    private final DedupCache dedupCache;
+    private final DedupProperties dedupProperties;
+    private final IndexRefreshService indexRefreshService;
+    private final ParserMetrics metrics;
+    private final FingerprintEngine fingerprintEngine;
+    private final FingerprintEngine legacyFingerprintEngine = new Md5FingerprintEngine();
+
+    // States loaded ahead of their job by prefetchDedupStates, and from when the last written
+    // findings of each (index, tool) are searchable, so a scan that raced a write is not used.
+    private final Map<StateKey, DedupState> prefetchedStates = new ConcurrentHashMap<>();
+    private final Map<StateKey, Long> lastWriteNanos = new ConcurrentHashMap<>();
 
-    public DeDupService(ElasticsearchClient esClient, ElasticSearchService elasticSearchService) {
+    public DeDupService(ElasticsearchClient esClient, TenantIndexManager tenantIndexManager,
+                        ElasticProperties elasticProperties, DedupCache dedupCache,
+                        DedupProperties dedupProperties, IndexRefreshService indexRefreshService,
+                        ParserMetrics metrics) {
         this.esClient = esClient;
-        this.elasticSearchService = elasticSearchService;
+        this.tenantIndexManager = tenantIndexManager;
+        this.scanProperties = elasticProperties.getScan();
+        this.dedupCache = dedupCache;
+        this.dedupProperties = dedupProperties;
+        this.indexRefreshService = indexRefreshService;
+        this.metrics = metrics;
+        this.fingerprintEngine = FingerprintEngine.forAlgorithm(dedupProperties.getFingerprint());
+    }
+
+    /**
+     * Get the de-dup state for a job: the warm copy from the cache if a previous job left
+     * one, else a state from {@link #prefetchDedupStates} that no write has overtaken,
+     * otherwise a fresh fetch from ES. With fingerprint document ids nothing is
+     * prefetched; the job resolves each batch with {@link #resolve}.
+     * Must be paired with {@link #releaseDedupState}.
+     */
+    public DedupState acquireDedupState(ToolTypes toolType, String esIndex) throws IOException {
+        if (dedupProperties.getIdStrategy() == DocumentIdStrategy.FINGERPRINT) {
+            tenantIndexManager.ensureIndex(esIndex);
+            return new DedupState(esIndex, toolType, new FingerprintMap<>(), false);
+        }
+        DedupState cached = dedupCache.checkout(esIndex, toolType);
+        if (cached != null) {
+            System.out.println("[DeDupService] Reusing cached " + toolType + " findings for index=" + esIndex
+                + " (hit rate " + String.format("%.2f", dedupCache.getStats().hitRate()) + ")");
+            return cached;
+        }
+        StateKey key = new StateKey(esIndex, toolType);
+        DedupState prefetched = prefetchedStates.remove(key);
+        if (prefetched != null && isNewerThanLastWrite(key, prefetched.getLoadedAtNanos())) {
+            return prefetched;
+        }
+        ensureWritesSearchable(esIndex, List.of(toolType));
+        return new DedupState(esIndex, toolType, fetchExistingDocsByTool(toolType, esIndex));
+    }
+
+    /**
+     * Record that a job's findings for this index and tool were written. Scans loaded
+     * before they are searchable (right away, or after the index's refresh interval with
+     * refresh policy NONE) no longer match ES.
+     */
+    public void recordWrites(ToolTypes toolType, String esIndex) {
+        lastWriteNanos.put(new StateKey(esIndex, toolType),
+            System.nanoTime() + indexRefreshService.visibilityLag().toNanos());
+    }
+
+    /**
+     * Before a job resumes from a checkpoint: an earlier attempt, possibly on another
+     * instance, wrote findings that no cached or prefetched state has seen, so both are
+     * dropped and the index is refreshed for the fetch that follows.
+     */
+    public void prepareForResume(ToolTypes toolType, String esIndex) {
+        dedupCache.invalidate(esIndex, toolType);
+        prefetchedStates.remove(new StateKey(esIndex, toolType));
+        indexRefreshService.refreshNow(esIndex);
+    }
+
+    private boolean isNewerThanLastWrite(StateKey key, long loadedAtNanos) {
+        Long lastWrite = lastWriteNanos.get(key);
+        return lastWrite == null || loadedAtNanos - lastWrite > 0;
+    }
+
+    /**
+     * Before scanning, refresh the index if recent writes of these tools may not be
+     * searchable yet, so the scan does not miss them and create duplicates.
+     */
+    private void ensureWritesSearchable(String esIndex, Collection<ToolTypes> toolTypes) {
+        long now = System.nanoTime();
+        boolean pendingWrites = false;
+        for (ToolTypes toolType : toolTypes) {
+            Long lastWrite = lastWriteNanos.get(new StateKey(esIndex, toolType));
+            if (lastWrite != null && lastWrite - now >= 0) {
+                pendingWrites = true;
+            }
+        }
+        if (!pendingWrites) {
+            return;
+        }
+        indexRefreshService.refreshNow(esIndex);
+        long refreshedAt = System.nanoTime();
+        for (ToolTypes toolType : toolTypes) {
+            lastWriteNanos.computeIfPresent(new StateKey(esIndex, toolType),
+                (key, lastWrite) -> lastWrite - refreshedAt > 0 ? refreshedAt - 1 : lastWrite);
+        }
+    }
+
+    /**
+     * Drop the prefetched states of these tools that no job picked up (the job failed,
+     * timed out or never ran), so they do not stay in memory.
+     */
+    public void discardPrefetchedStates(String esIndex, Collection<ToolTypes> toolTypes) {
+        for (ToolTypes toolType : toolTypes) {
+            prefetchedStates.remove(new StateKey(esIndex, toolType));
+        }
+    }
+
+    /**
+     * Load the existing findings of several tools of one index ahead of their jobs, in a
+     * single scan: one point-in-time, and one _msearch per page round holding a search for
+     * every tool that still has hits left. The states are picked up by
+     * {@link #acquireDedupState}. Tools that are cached, or fingerprint document ids, need
+     * no prefetch; with fewer than two tools left the jobs fetch on their own.
+     */
+    public void prefetchDedupStates(String esIndex, Collection<ToolTypes> toolTypes) throws IOException {
+        if (dedupProperties.getIdStrategy() == DocumentIdStrategy.FINGERPRINT) {
+            return;
+        }
+        List<ToolTypes> pending = new ArrayList<>();
+        for (ToolTypes toolType : new LinkedHashSet<>(toolTypes)) {
+            if (!dedupCache.contains(esIndex, toolType)) {
+                pending.add(toolType);
+            }
+        }
+        if (pending.size() < 2) {
+            return;
+        }
+        tenantIndexManager.ensureIndex(esIndex);
+        ensureWritesSearchable(esIndex, pending);
+
+        int pageSize = scanProperties.getPageSize();
+        Time keepAlive = Time.of(t -> t.time(scanProperties.getKeepAlive().toSeconds() + "s"));
+        Map<ToolTypes, FingerprintMap<Finding>> findingsByTool = new EnumMap<>(ToolTypes.class);
+        Map<ToolTypes, List<FieldValue>> searchAfterByTool = new EnumMap<>(ToolTypes.class);
+        for (ToolTypes toolType : pending) {
+            findingsByTool.put(toolType, new FingerprintMap<>());
+        }
+
+        long loadedAtNanos = System.nanoTime();
+        String pitId = esClient.openPointInTime(p -> p.index(esIndex).keepAlive(keepAlive)).id();
+        try {
+            List<ToolTypes> active = pending;
+            while (!active.isEmpty()) {
+                String currentPitId = pitId;
+                List<RequestItem> searches = new ArrayList<>(active.size());
+                for (ToolTypes toolType : active) {
+                    List<FieldValue> after = searchAfterByTool.get(toolType);
+                    searches.add(RequestItem.of(r -> r
+                        .header(h -> h)
+                        .body(b -> {
+                            b.pit(p -> p.id(currentPitId).keepAlive(keepAlive))
+                             .query(toolTypeQuery(toolType))
+                             .size(pageSize)
+                             .sort(so -> so.field(f -> f.field("_shard_doc").order(SortOrder.Asc)))
+                             .trackTotalHits(th -> th.enabled(false));
+                            if (after != null) {
+                                b.searchAfter(after);
+                            }
+                            return b;
+                        })));
+                }
+                MsearchResponse<Finding> msearchResp = metrics.timeEsRequest("msearch",
+                    () -> esClient.msearch(m -> m.searches(searches), Finding.class));
+
+                List<ToolTypes> next = new ArrayList<>();
+                for (int i = 0; i < active.size(); i++) {
+                    ToolTypes toolType = active.get(i);
+                    MultiSearchResponseItem<Finding> item = msearchResp.responses().get(i);
+                    if (item.isFailure()) {
+                        throw new IOException("msearch of " + toolType + " findings in index=" + esIndex
+                            + " failed: " + item.failure().error().reason());
+                    }
+                    MultiSearchItem<Finding> page = item.result();
+                    List<Hit<Finding>> hits = page.hits().hits();
+                    FingerprintMap<Finding> findings = findingsByTool.get(toolType);
+                    for (Hit<Finding> hit : hits) {
+                        Finding existing = hit.source();
+                        if (existing != null) {
+                            findings.put(computeFingerprint(existing), existing);
+                        }
+                    }
+                    if (hits.size() == pageSize) {
+                        searchAfterByTool.put(toolType, hits.get(hits.size() - 1).sort());
+                        next.add(toolType);
+                    }
+                    if (page.pitId() != null) {
+                        pitId = page.pitId();
+                    }
+                }
+                active = next;
+            }
+        } finally {
+            closePointInTime(pitId);
+        }
+
+        for (ToolTypes toolType : pending) {
+            prefetchedStates.put(new StateKey(esIndex, toolType),
+                new DedupState(esIndex, toolType, findingsByTool.get(toolType), true, loadedAtNanos));
+        }
+    }
+
+    /**
+     * Hand the state back after a job. Only states that still mirror ES (the job finished
+     * and every write succeeded) are kept for reuse; anything else is dropped so the next
+     * job re-fetches.
+     */
+    public void releaseDedupState(DedupState state, boolean inSyncWithES) {
+        if (inSyncWithES) {
+            dedupCache.checkin(state);
+        }
     }
 
     /**
      * Fetch all existing documents from ES for the given tool type in the specified index,
      * so we can compare them with incoming alerts for de-dup.
      */
-    public Map<String, Finding> fetchExistingDocsByTool(ToolTypes toolType, String esIndex) throws IOException {
-        checkAndCreateIndexIfNotExists(esIndex);
-        Query toolTypeQuery = MatchQuery.of(t -> t
+    public FingerprintMap<Finding> fetchExistingDocsByTool(ToolTypes toolType, String esIndex) throws IOException {
+        FingerprintMap<Finding> existingMap = new FingerprintMap<>();
+        forEachExistingDoc(toolType, esIndex, existing -> {
+            Fingerprint fingerprint = computeFingerprint(existing);
+            existingMap.put(fingerprint, existing);
+        });
+        return existingMap;
+    }
+
+    /**
+     * Scan every document of the given tool type with a point-in-time and search_after,
+     * one page (parser.elastic.scan.page-size) at a time. Each page is handed to the
+     * consumer as it arrives, so there is no 10k result window cap and only one page
+     * of hits is held in the response at any time.
+     */
+    public void forEachExistingDoc(ToolTypes toolType, String esIndex, Consumer<Finding> consumer) throws IOException {
+        tenantIndexManager.ensureIndex(esIndex);
+        Query toolTypeQuery = toolTypeQuery(toolType);
+
+        int pageSize = scanProperties.getPageSize();
+        Time keepAlive = Time.of(t -> t.time(scanProperties.getKeepAlive().toSeconds() + "s"));
+
+        String pitId = esClient.openPointInTime(p -> p.index(esIndex).keepAlive(keepAlive)).id();
+        try {
+            List<FieldValue> searchAfter = null;
+            while (true) {
+                String currentPitId = pitId;
+                List<FieldValue> after = searchAfter;
+                SearchResponse<Finding> searchResp = metrics.timeEsRequest("search", () -> esClient.search(s -> {
+                    s.pit(p -> p.id(currentPitId).keepAlive(keepAlive))
+                     .query(toolTypeQuery)
+                     .size(pageSize)
+                     .sort(so -> so.field(f -> f.field("_shard_doc").order(SortOrder.Asc)))
+                     .trackTotalHits(th -> th.enabled(false));
+                    if (after != null) {
+                        s.searchAfter(after);
+                    }
+                    return s;
+                }, Finding.class));
+                // ES may hand back a new PIT id on any page, the last one included; always
+                // continue with, and finally close, the latest one.
+                if (searchResp.pitId() != null) {
+                    pitId = searchResp.pitId();
+                }
+
+                List<Hit<Finding>> hits = searchResp.hits().hits();
+                for (Hit<Finding> hit : hits) {
+                    Finding existing = hit.source();
+                    if (existing != null) {
+                        consumer.accept(existing);
+                    }
+                }
+
+                if (hits.size() < pageSize) {
+                    break;
+                }
+                searchAfter = hits.get(hits.size() - 1).sort();
+            }
+        } finally {
+            closePointInTime(pitId);
+        }
+    }
+
+    private static Query toolTypeQuery(ToolTypes toolType) {
+        return MatchQuery.of(t -> t
             .field("toolType")
             .query(toolType.toString())
         )._toQuery();
+    }
+
+    private void closePointInTime(String pitId) {
+        try {
+            esClient.closePointInTime(c -> c.id(pitId));
+        } catch (Exception e) {
+            // The PIT expires on its own after keep-alive; nothing else to do.
+            System.err.println("[DeDupService] Failed to close point-in-time: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Make sure every given fingerprint that is not yet in an incomplete state has been
+     * looked up in ES. Only the documents of this batch are fetched (one _mget by
+     * fingerprint id), so the cost follows the size of the incoming file, not the tenant's
+     * history. With legacyIdLookup, fingerprints still missing are retried under their
+     * MD5-based ids. Complete (prefetched) states need no lookup.
+     *
+     * @param findings     the incoming findings of the batch
+     * @param fingerprints their fingerprints, index-aligned with findings
+     */
+    public void resolve(DedupState state, List<Finding> findings, List<Fingerprint> fingerprints) throws IOException {
+        if (state.isComplete()) {
+            return;
+        }
+        Map<String, Fingerprint> fingerprintById = new LinkedHashMap<>();
+        for (Fingerprint fingerprint : fingerprints) {
+            if (!state.contains(fingerprint)) {
+                fingerprintById.put(documentIdFor(state.getToolType(), fingerprint), fingerprint);
+            }
+        }
+        mgetInto(state, fingerprintById);
 
-        SearchRequest searchReq = SearchRequest.of(s -> s
-            .index(esIndex)      // dynamic index
-            .query(toolTypeQuery)
-            .size(10_000)        // adapt if needed
-        );
+        if (dedupProperties.isLegacyIdLookup() && dedupProperties.getFingerprint() != FingerprintAlgorithm.MD5) {
+            Map<String, Fingerprint> legacyIds = new LinkedHashMap<>();
+            for (int i = 0; i < findings.size(); i++) {
+                Fingerprint fingerprint = fingerprints.get(i);
+                if (!state.contains(fingerprint)) {
+                    Fingerprint legacy = fingerprintWith(legacyFingerprintEngine, findings.get(i));
+                    legacyIds.put(documentIdFor(state.getToolType(), legacy), fingerprint);
+                }
+            }
+            // Found documents keep their legacy _id; updates go to existing.getId().
+            mgetInto(state, legacyIds);
+        }
+    }
 
-        SearchResponse<Finding> searchResp = esClient.search(searchReq, Finding.class);
+    private void mgetInto(DedupState state, Map<String, Fingerprint> fingerprintById) throws IOException {
+        if (fingerprintById.isEmpty()) {
+            return;
+        }
+        List<String> ids = new ArrayList<>(fingerprintById.keySet());
+        MgetResponse<Finding> mgetResp = metrics.timeEsRequest("mget", () -> esClient.mget(m -> m
+            .index(state.getEsIndex())
+            .ids(ids), Finding.class));
 
-        Map<String, Finding> existingMap = new HashMap<>();
-        searchResp.hits().hits().forEach(hit -> {
-            Finding existing = hit.source();
-            if (existing != null) {
-                String hash = computeHashForFinding(existing);
-                existingMap.put(hash, existing);
+        for (MultiGetResponseItem<Finding> item : mgetResp.docs()) {
+            if (item.isFailure()) {
+                throw new IOException("mget of " + item.failure().id() + " in index=" + state.getEsIndex()
+                    + " failed: " + item.failure().error().reason());
             }
-        });
+            GetResult<Finding> result = item.result();
+            if (result.found() && result.source() != null) {
+                DocVersion version = result.seqNo() != null && result.primaryTerm() != null
+                    ? new DocVersion(result.seqNo(), result.primaryTerm()) : null;
+                state.putStored(fingerprintById.get(result.id()), result.id(), result.source(), version);
+            }
+        }
+    }
 
-        return existingMap;
+    /**
+     * The _id for a finding that is not in ES yet: a random UUID, or with fingerprint
+     * document ids "<tool>-<fingerprint hex>", so the same alert always maps to the same document.
+     */
+    public String newDocumentId(ToolTypes toolType, Fingerprint fingerprint) {
+        if (dedupProperties.getIdStrategy() == DocumentIdStrategy.FINGERPRINT) {
+            return documentIdFor(toolType, fingerprint);
+        }
+        return UUID.randomUUID().toString();
+    }
+
+    private static String documentIdFor(ToolTypes toolType, Fingerprint fingerprint) {
+        return toolType.name().toLowerCase(Locale.ROOT) + "-" + fingerprint.toHex();
     }
 
     /**
-     * Compute a hash for a Finding by combining:
+     * Compute the de-dup identity of a Finding with the configured engine, from:
      *   - finding.getTitle()
-     *   - optional "number" from finding.getToolAdditionalProperties()
+     *   - optional "number" from finding.getToolAdditionalProperties() (the raw alert)
+     */
+    public Fingerprint computeFingerprint(Finding f) {
+        return fingerprintWith(fingerprintEngine, f);
+    }
+
+    /**
+     * Hex form of {@link #computeFingerprint(Finding)}.
      */
     public String computeHashForFinding(Finding f) {
-        String title = f.getTitle() != null ? f.getTitle() : "";
-        String number = "";
+        return computeFingerprint(f).toHex();
+    }
+
+    private static Fingerprint fingerprintWith(FingerprintEngine engine, Finding f) {
+        Object number = null;
         if (f.getToolAdditionalProperties() != null) {
-            Object numberObj = f.getToolAdditionalProperties().get("number");
-            if (numberObj != null) {
-                number = numberObj.toString();
-            }
+            number = f.getToolAdditionalProperties().getScalar("number");
         }
-        return md5(title + "|" + number);
+        return engine.fingerprint(f.getTitle(), number);
+    }
+
+    /**
+     * Digest of an alert's raw JSON (MurmurHash3 128-bit of the text), stored with the
+     * finding as alertDigest so a re-scan can tell an identical alert without mapping it.
+     */
+    public Fingerprint computeAlertDigest(RawJson alert) {
+        return new Murmur3Hasher128().putUtf8(alert.toString()).finish();
     }
 
     /**
@@ -88,40 +473,96 @@ public class DeDupService {
     }
 
     /**
-     * Overwrite an existing doc in ES by reusing the same _id, but in the specified index.
+     * Update an existing doc in ES with only the fields that changed (plus updatedAt),
+     * queued on the job's bulk session. Fields other writers own (ticketId) are not
+     * re-sent. Of the alert blob only the top-level keys whose value changed are sent,
+     * compared as parsed JSON so another serialisation of the same alert is no change;
+     * they are replaced (and keys gone from the alert removed) by {@link #BLOB_UPDATE_SCRIPT},
+     * since a partial doc would merge into the stored blob instead. With the version the
+     * existing doc was read at, the update only applies if nobody wrote it since.
+     *
+     * @param ifVersion the stored version of existing, or null to update unconditionally
      */
-    public void updateInES(Finding incoming, Finding existing, String esIndex) {
+    public void updateInES(Finding incoming, Finding existing, DocVersion ifVersion,
+                           BulkSession bulkSession) throws IOException {
         incoming.setId(existing.getId());
         if(existing.getTicketId() != null) incoming.setTicketId(existing.getTicketId());
-        elasticSearchService.saveFinding(incoming, esIndex);
-    }
+        Map<String, Object> fields = changedFields(incoming, existing);
 
-    private String md5(String input) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("MD5");
-            byte[] digest = md.digest(input.getBytes());
-            StringBuilder sb = new StringBuilder();
-            for (byte b : digest) {
-                sb.append(String.format("%02x", b));
+        RawJson blob = incoming.getToolAdditionalProperties();
+        RawJson storedBlob = existing.getToolAdditionalProperties();
+        if (blob == null || blob.sameValueAs(storedBlob)) {
+            bulkSession.update(existing.getId(), fields, ifVersion);
+            return;
+        }
+        Map<String, RawJson> stored = storedBlob != null ? storedBlob.getFields() : Map.of();
+        Map<String, RawJson> current = blob.getFields();
+        Map<String, RawJson> set = new LinkedHashMap<>();
+        for (Map.Entry<String, RawJson> field : current.entrySet()) {
+            if (!field.getValue().sameValueAs(stored.get(field.getKey()))) {
+                set.put(field.getKey(), field.getValue());
             }
-            return sb.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("MD5 algorithm not found", e);
         }
-    }
-    private void checkAndCreateIndexIfNotExists(String indexName) {
-        try {
-            // Check existence (inline boolean)
-            boolean indexExists = esClient.indices()
-                    .exists(e -> e.index(indexName))
-                    .value();
-
-            // If the index does not exist, create it
-            if (!indexExists) {
-                esClient.indices().create(c -> c.index(indexName));
+        List<String> unset = new ArrayList<>();
+        for (String key : stored.keySet()) {
+            if (!current.containsKey(key)) {
+                unset.add(key);
             }
-        } catch (Exception e) {
-            e.printStackTrace();
         }
+        if (set.isEmpty() && unset.isEmpty()) {
+            bulkSession.update(existing.getId(), fields, ifVersion);
+            return;
+        }
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("fields", fields);
+        params.put("set", set);
+        params.put("unset", unset);
+        bulkSession.updateByScript(existing.getId(), BLOB_UPDATE_SCRIPT, params, ifVersion);
+    }
+
+    /**
+     * The parser-owned fields whose value differs between the incoming and existing finding,
+     * keyed by their name in the ES document. The alert blob is diffed separately by
+     * {@link #updateInES}.
+     */
+    static Map<String, Object> changedFields(Finding incoming, Finding existing) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        putIfChanged(changes, "title", incoming.getTitle(), existing.getTitle());
+        putIfChanged(changes, "desc", incoming.getDesc(), existing.getDesc());
+        putIfChanged(changes, "severity", incoming.getSeverity(), existing.getSeverity());
+        putIfChanged(changes, "state", incoming.getState(), existing.getState());
+        putIfChanged(changes, "url", incoming.getUrl(), existing.getUrl());
+        putIfChanged(changes, "toolType", incoming.getToolType(), existing.getToolType());
+        putIfChanged(changes, "cve", incoming.getCve(), existing.getCve());
+        putIfChanged(changes, "cwes", incoming.getCwes(), existing.getCwes());
+        putIfChanged(changes, "cvss", incoming.getCvss(), existing.getCvss());
+        putIfChanged(changes, "type", incoming.getType(), existing.getType());
+        putIfChanged(changes, "suggestions", incoming.getSuggestions(), existing.getSuggestions());
+        putIfChanged(changes, "filePath", incoming.getFilePath(), existing.getFilePath());
+        putIfChanged(changes, "componentName", incoming.getComponentName(), existing.getComponentName());
+        putIfChanged(changes, "componentVersion", incoming.getComponentVersion(), existing.getComponentVersion());
+        putIfChanged(changes, "alertDigest", incoming.getAlertDigest(), existing.getAlertDigest());
+        changes.put("updatedAt", incoming.getUpdatedAt());
+        return changes;
+    }
+
+    /**
+     * Store the digest of the alert an unchanged finding was just seen as, with a partial
+     * update of only that field.
+     */
+    public void updateAlertDigest(Finding existing, String alertDigest, BulkSession bulkSession) throws IOException {
+        existing.setAlertDigest(alertDigest);
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("alertDigest", alertDigest);
+        bulkSession.update(existing.getId(), fields);
+    }
+
+    private static void putIfChanged(Map<String, Object> changes, String field, Object incoming, Object existing) {
+        if (!Objects.equals(incoming, existing)) {
+            changes.put(field, incoming);
+        }
+    }
+
+    private record StateKey(String esIndex, ToolTypes toolType) {
     }
 }
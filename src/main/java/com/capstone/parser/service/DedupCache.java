@@ -0,0 +1,141 @@
+package com.capstone.parser.service;
+
+import com.capstone.parser.config.DedupProperties;
+import com.capstone.parser.enums.ToolTypes;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the {@link DedupState} of recently parsed (index, tool) pairs in memory so
+ * repeated scans of a tenant skip the ES fetch.
+ *
+ * A job checks a state out (removing it from the cache, so no other job can see it
+ * half-updated), writes through it while saving findings, and checks it back in once
+ * all its writes succeeded. Entries are evicted least-recently-used when either
+ * max-entries or max-findings is exceeded, and expire ttl after they were loaded
+ * from ES, which bounds how long changes made by other writers (e.g. ticket ids)
+ * can go unseen.
+ */
+@Component
+public class DedupCache {
+
+    private final DedupProperties.Cache config;
+
+    // access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedFindings;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    public DedupCache(DedupProperties dedupProperties) {
+        this.config = dedupProperties.getCache();
+    }
+
+    /**
+     * Take the cached state for this index and tool, or null if there is none (or it
+     * expired). The caller owns the returned state until it checks it back in.
+     */
+    public synchronized DedupState checkout(String esIndex, ToolTypes toolType) {
+        if (!config.isEnabled()) {
+            return null;
+        }
+        Entry entry = entries.remove(new Key(esIndex, toolType));
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        cachedFindings -= entry.weight;
+        if (isExpired(entry.state)) {
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.state;
+    }
+
+    /**
+     * Whether a usable state for this index and tool is cached, without taking it.
+     */
+    public synchronized boolean contains(String esIndex, ToolTypes toolType) {
+        if (!config.isEnabled()) {
+            return false;
+        }
+        Entry entry = entries.get(new Key(esIndex, toolType));
+        return entry != null && !isExpired(entry.state);
+    }
+
+    /**
+     * Return a state whose in-memory view matches ES, making it available to the next job.
+     * States larger than max-findings are not cached at all.
+     */
+    public synchronized void checkin(DedupState state) {
+        if (!config.isEnabled() || !state.isComplete() || isExpired(state)) {
+            return;
+        }
+        int weight = state.size();
+        if (weight > config.getMaxFindings()) {
+            return;
+        }
+        Entry previous = entries.put(new Key(state.getEsIndex(), state.getToolType()), new Entry(state, weight));
+        if (previous != null) {
+            cachedFindings -= previous.weight;
+        }
+        cachedFindings += weight;
+        evictIfNeeded();
+    }
+
+    public synchronized void invalidate(String esIndex, ToolTypes toolType) {
+        Entry removed = entries.remove(new Key(esIndex, toolType));
+        if (removed != null) {
+            cachedFindings -= removed.weight;
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        cachedFindings = 0;
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, expirations, entries.size(), cachedFindings);
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while ((entries.size() > config.getMaxEntries() || cachedFindings > config.getMaxFindings())
+                && it.hasNext()) {
+            Entry eldest = it.next().getValue();
+            it.remove();
+            cachedFindings -= eldest.weight;
+            evictions++;
+        }
+    }
+
+    private boolean isExpired(DedupState state) {
+        return System.nanoTime() - state.getLoadedAtNanos() >= config.getTtl().toNanos();
+    }
+
+    private record Key(String esIndex, ToolTypes toolType) {
+    }
+
+    private record Entry(DedupState state, int weight) {
+    }
+
+    /**
+     * Point-in-time counters of the cache.
+     */
+    public record Stats(long hits, long misses, long evictions, long expirations, int entries, long findings) {
+
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+}
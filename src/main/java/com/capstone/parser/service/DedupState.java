@@ -0,0 +1,140 @@
+package com.capstone.parser.service;
+
+import com.capstone.parser.enums.ToolTypes;
+import com.capstone.parser.model.Finding;
+import com.capstone.parser.service.fingerprint.Fingerprint;
+import com.capstone.parser.service.fingerprint.FingerprintMap;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The existing findings of one tool in one tenant index, keyed by de-dup fingerprint.
+ * A job reads and writes through this while it runs; afterwards it can be handed
+ * back to the {@link DedupCache} for the next job on the same index and tool.
+ *
+ * A complete state was prefetched with every document of the tool, so a miss means
+ * the finding is new. An incomplete state (fingerprint document ids) only holds what
+ * this job has looked up or written, and must be resolved against ES before use.
+ */
+public class DedupState {
+
+    private final String esIndex;
+    private final ToolTypes toolType;
+    private final FingerprintMap<Finding> findings;
+    private final boolean complete;
+    private final long loadedAtNanos;
+
+    // Alert digest -> fingerprint of the finding stored with it, built on first use. Entries
+    // are never removed; one whose finding has since changed no longer matches its digest.
+    private FingerprintMap<Fingerprint> fingerprintsByAlertDigest;
+
+    // Document id -> version it was looked up at, for findings read by id and not written since.
+    private final Map<String, DocVersion> storedVersions = new HashMap<>();
+
+    public DedupState(String esIndex, ToolTypes toolType, FingerprintMap<Finding> findings) {
+        this(esIndex, toolType, findings, true);
+    }
+
+    public DedupState(String esIndex, ToolTypes toolType, FingerprintMap<Finding> findings, boolean complete) {
+        this(esIndex, toolType, findings, complete, System.nanoTime());
+    }
+
+    /**
+     * @param loadedAtNanos when the snapshot the findings were read from was taken
+     */
+    public DedupState(String esIndex, ToolTypes toolType, FingerprintMap<Finding> findings, boolean complete,
+                      long loadedAtNanos) {
+        this.esIndex = esIndex;
+        this.toolType = toolType;
+        this.findings = findings;
+        this.complete = complete;
+        this.loadedAtNanos = loadedAtNanos;
+    }
+
+    public String getEsIndex() {
+        return esIndex;
+    }
+
+    public ToolTypes getToolType() {
+        return toolType;
+    }
+
+    /**
+     * When the findings were loaded from ES; writes made through this state since
+     * then do not count, as they keep it in sync.
+     */
+    public long getLoadedAtNanos() {
+        return loadedAtNanos;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public boolean contains(Fingerprint fingerprint) {
+        return findings.containsKey(fingerprint);
+    }
+
+    public Finding get(Fingerprint fingerprint) {
+        return findings.get(fingerprint);
+    }
+
+    /**
+     * Add or replace a finding. Its stored version is forgotten, as a finding put here
+     * after a lookup is one this job has just written.
+     */
+    public void put(Fingerprint fingerprint, Finding finding) {
+        storedVersions.remove(finding.getId());
+        findings.put(fingerprint, finding);
+        if (fingerprintsByAlertDigest != null) {
+            indexAlertDigest(fingerprint, finding);
+        }
+    }
+
+    /**
+     * Add a finding as just read from ES under the given document id and version.
+     */
+    public void putStored(Fingerprint fingerprint, String documentId, Finding finding, DocVersion version) {
+        put(fingerprint, finding);
+        if (version != null) {
+            storedVersions.put(documentId, version);
+        }
+    }
+
+    /**
+     * The version a finding was looked up at, or null if it was not read by id or this
+     * job has written it since.
+     */
+    public DocVersion storedVersion(String documentId) {
+        return storedVersions.get(documentId);
+    }
+
+    /**
+     * The fingerprint of the finding whose stored alert digest is this one, or null if
+     * no finding was last seen as an alert with this digest.
+     */
+    public Fingerprint findByAlertDigest(Fingerprint digest) {
+        if (fingerprintsByAlertDigest == null) {
+            fingerprintsByAlertDigest = new FingerprintMap<>(findings.size());
+            findings.forEach(this::indexAlertDigest);
+        }
+        Fingerprint fingerprint = fingerprintsByAlertDigest.get(digest);
+        if (fingerprint == null) {
+            return null;
+        }
+        Finding finding = findings.get(fingerprint);
+        return finding != null && digest.hasHex(finding.getAlertDigest()) ? fingerprint : null;
+    }
+
+    private void indexAlertDigest(Fingerprint fingerprint, Finding finding) {
+        String alertDigest = finding.getAlertDigest();
+        if (alertDigest != null && alertDigest.length() == 32) {
+            fingerprintsByAlertDigest.put(Fingerprint.fromHex(alertDigest), fingerprint);
+        }
+    }
+
+    public int size() {
+        return findings.size();
+    }
+}
@@ -0,0 +1,8 @@
+package com.capstone.parser.service;
+
+/**
+ * The _seq_no and _primary_term a document was read at. An update sent with them only
+ * applies if nobody wrote the document since; otherwise ES rejects it with a conflict.
+ */
+public record DocVersion(long seqNo, long primaryTerm) {
+}
@@ -12,9 +12,14 @@ import org.springframework.stereotype.Service;
 public class ElasticSearchService {
 
     private final ElasticsearchClient esClient;
+    private final TenantIndexManager tenantIndexManager;
+    private final ParserMetrics metrics;
 
-    public ElasticSearchService(ElasticsearchClient esClient) {
+    public ElasticSearchService(ElasticsearchClient esClient, TenantIndexManager tenantIndexManager,
+                                ParserMetrics metrics) {
         this.esClient = esClient;
+        this.tenantIndexManager = tenantIndexManager;
+        this.metrics = metrics;
     }
 
     /**
@@ -22,7 +27,7 @@ public class ElasticSearchService {
      */
     public void saveFinding(Finding finding, String esIndex) {
         try {
-            checkAndCreateIndexIfNotExists(esIndex);
+            tenantIndexManager.ensureIndex(esIndex);
             IndexRequest<Finding> request = IndexRequest.of(builder ->
                 builder.index(esIndex)
                        .id(finding.getId())
@@ -37,25 +42,10 @@ public class ElasticSearchService {
         }
     }
 
-    private void checkAndCreateIndexIfNotExists(String indexName) {
-        try {
-            // Check existence (inline boolean)
-            boolean indexExists = esClient.indices()
-                    .exists(e -> e.index(indexName))
-                    .value();
-
-            // If the index does not exist, create it
-            if (!indexExists) {
-                esClient.indices().create(c -> c.index(indexName));
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-    }
-
     public void refreshIndex(String indexName) {
         try {
-            RefreshResponse response = esClient.indices().refresh(r -> r.index(indexName));
+            RefreshResponse response = metrics.timeEsRequest("refresh",
+                () -> esClient.indices().refresh(r -> r.index(indexName)));
             System.out.println("[ElasticSearchService] Refreshed index=" + indexName 
                 + ", shards=" + response.shards());
         } catch (Exception e) {
@@ -0,0 +1,53 @@
+package com.capstone.parser.service;
+
+import com.capstone.parser.dto.ack.Acknowledgement;
+import com.capstone.parser.dto.ack.ParseAcknowledgement;
+import com.capstone.parser.dto.event.ParseRequestEvent;
+import com.capstone.parser.dto.event.RunbookJobEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JSON encoding of the Kafka events, straight from and to the record bytes. The readers
+ * and writers are built once up front from the application's ObjectMapper (with the
+ * Blackbird module from {@link com.capstone.parser.config.JacksonConfig}), instead of a
+ * private ObjectMapper and its serializer caches per consumer and producer. The events
+ * hold no dates, so Spring Boot's mapper settings leave the wire format unchanged;
+ * unknown properties in a parse request are ignored.
+ */
+@Component
+public class EventJsonCodec {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader parseRequestReader;
+    private final ObjectWriter runbookJobWriter;
+
+    // Acknowledgements are serialized by their concrete type; ParseAcknowledgement is the common one.
+    private final Map<Class<?>, ObjectWriter> acknowledgementWriters = new ConcurrentHashMap<>();
+
+    public EventJsonCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.parseRequestReader = objectMapper.readerFor(ParseRequestEvent.class);
+        this.runbookJobWriter = objectMapper.writerFor(RunbookJobEvent.class);
+        acknowledgementWriters.put(ParseAcknowledgement.class, objectMapper.writerFor(ParseAcknowledgement.class));
+    }
+
+    public ParseRequestEvent readParseRequest(byte[] message) throws IOException {
+        return parseRequestReader.readValue(message);
+    }
+
+    public byte[] writeRunbookJob(RunbookJobEvent event) throws IOException {
+        return runbookJobWriter.writeValueAsBytes(event);
+    }
+
+    public byte[] writeAcknowledgement(Acknowledgement<?> ack) throws IOException {
+        return acknowledgementWriters.computeIfAbsent(ack.getClass(), objectMapper::writerFor)
+            .writeValueAsBytes(ack);
+    }
+}
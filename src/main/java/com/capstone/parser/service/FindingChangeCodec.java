@@ -0,0 +1,65 @@
+package com.capstone.parser.service;
+
+import com.capstone.parser.enums.FindingChangeType;
+import com.capstone.parser.service.processor.JobResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Text form of a job's finding changes as stored in MySQL: one "<N|U|S><findingId>" line
+ * per finding (new, updated, same), in job order.
+ */
+final class FindingChangeCodec {
+
+    private FindingChangeCodec() {
+    }
+
+    static String encode(List<JobResult.FindingChange> changes) {
+        StringBuilder encoded = new StringBuilder(changes.size() * 40);
+        for (JobResult.FindingChange change : changes) {
+            if (encoded.length() > 0) {
+                encoded.append('\n');
+            }
+            encoded.append(codeOf(change.type())).append(change.findingId());
+        }
+        return encoded.toString();
+    }
+
+    static void decode(String encoded, List<JobResult.FindingChange> into) {
+        if (encoded == null || encoded.isEmpty()) {
+            return;
+        }
+        for (String line : encoded.split("\n")) {
+            into.add(new JobResult.FindingChange(line.substring(1), typeOf(line.charAt(0))));
+        }
+    }
+
+    static List<JobResult.FindingChange> decode(String encoded) {
+        List<JobResult.FindingChange> changes = new ArrayList<>();
+        decode(encoded, changes);
+        return changes;
+    }
+
+    private static char codeOf(FindingChangeType type) {
+        switch (type) {
+            case NEW:
+                return 'N';
+            case UPDATED:
+                return 'U';
+            default:
+                return 'S';
+        }
+    }
+
+    private static FindingChangeType typeOf(char code) {
+        switch (code) {
+            case 'N':
+                return FindingChangeType.NEW;
+            case 'U':
+                return FindingChangeType.UPDATED;
+            default:
+                return FindingChangeType.UNCHANGED;
+        }
+    }
+}
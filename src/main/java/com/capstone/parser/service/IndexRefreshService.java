@@ -0,0 +1,107 @@
+package com.capstone.parser.service;
+
+import com.capstone.parser.config.ElasticProperties;
+import com.capstone.parser.enums.RefreshPolicy;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Makes a job's writes searchable according to parser.elastic.refresh.policy, instead of
+ * forcing a refresh of the whole tenant index after every file.
+ *
+ * With DEBOUNCED, the first job asking for a refresh of an index schedules one after
+ * debounce-window; every job asking before it runs shares that refresh. Since the
+ * refresh starts after all of them asked, each still sees its own writes once it completes.
+ */
+@Service
+public class IndexRefreshService {
+
+    private final ElasticSearchService elasticSearchService;
+    private final ElasticProperties.Refresh config;
+
+    private final Map<String, CompletableFuture<Void>> scheduled = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "es-refresh-debouncer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public IndexRefreshService(ElasticSearchService elasticSearchService, ElasticProperties elasticProperties) {
+        this.elasticSearchService = elasticSearchService;
+        this.config = elasticProperties.getRefresh();
+    }
+
+    public RefreshPolicy getPolicy() {
+        return config.getPolicy();
+    }
+
+    /**
+     * Called once a job's bulk session finished. Returns when the job's writes are
+     * searchable (WAIT_FOR, DEBOUNCED) or right away (NONE, or nothing was written).
+     */
+    public void makeVisible(String esIndex, BulkResult bulkResult, Duration timeout) throws Exception {
+        if (bulkResult.getSucceeded() == 0) {
+            return;
+        }
+        switch (config.getPolicy()) {
+            case WAIT_FOR:
+                // The final bulk request already waited; only if everything was flushed
+                // earlier (no final request was sent) is an explicit refresh needed.
+                if (!bulkResult.isRefreshed()) {
+                    elasticSearchService.refreshIndex(esIndex);
+                }
+                break;
+            case DEBOUNCED:
+                requestRefresh(esIndex).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * How long after a job finished its writes may still be invisible to searches.
+     */
+    public Duration visibilityLag() {
+        return config.getPolicy() == RefreshPolicy.NONE ? config.getIndexRefreshInterval() : Duration.ZERO;
+    }
+
+    /**
+     * Refresh the index right away, e.g. before scanning it for writes that may not be searchable yet.
+     */
+    public void refreshNow(String esIndex) {
+        elasticSearchService.refreshIndex(esIndex);
+    }
+
+    /**
+     * Join the pending debounced refresh of this index, or schedule one.
+     */
+    public CompletableFuture<Void> requestRefresh(String esIndex) {
+        return scheduled.computeIfAbsent(esIndex, index -> {
+            CompletableFuture<Void> refreshed = new CompletableFuture<>();
+            scheduler.schedule(() -> {
+                // Later requests schedule the next refresh; this one only covers those that already joined.
+                scheduled.remove(index);
+                elasticSearchService.refreshIndex(index);
+                refreshed.complete(null);
+            }, config.getDebounceWindow().toMillis(), TimeUnit.MILLISECONDS);
+            return refreshed;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        for (CompletableFuture<Void> pending : scheduled.values()) {
+            pending.cancel(false);
+        }
+    }
+}
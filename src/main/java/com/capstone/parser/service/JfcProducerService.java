@@ -3,31 +3,47 @@ package com.capstone.parser.service;
 import com.capstone.parser.dto.event.RunbookJobEvent;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class JfcProducerService {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final EventJsonCodec eventJsonCodec;
 
     @Value("job_ingestion_topic")
     private String jfcTopic;  // The JFC ingestion topic name
 
-    public JfcProducerService(KafkaTemplate<String, String> kafkaTemplate) {
+    public JfcProducerService(KafkaTemplate<String, byte[]> kafkaTemplate, EventJsonCodec eventJsonCodec) {
         this.kafkaTemplate = kafkaTemplate;
-        this.objectMapper = new ObjectMapper();
+        this.eventJsonCodec = eventJsonCodec;
     }
 
-    public void publishRunbookJob(RunbookJobEvent event) {
+    /**
+     * Publishes the runbook job, keyed by tenant so the chunks of a job (and the jobs of a
+     * tenant) stay in order on one partition. The returned future completes once the
+     * broker acked it.
+     */
+    public CompletableFuture<SendResult<String, byte[]>> publishRunbookJob(RunbookJobEvent event) {
         try {
-            String json = objectMapper.writeValueAsString(event);
-            kafkaTemplate.send(jfcTopic, json);
-            System.out.println("[JfcProducerService] Published RUNBOOK_JOB => " + event.getEventId());
+            byte[] json = eventJsonCodec.writeRunbookJob(event);
+            return kafkaTemplate.send(jfcTopic, event.getPayload().getTenantId(), json)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        System.err.println("[JfcProducerService] Failed to publish RUNBOOK_JOB => "
+                            + event.getEventId() + ": " + ex.getMessage());
+                    } else {
+                        System.out.println("[JfcProducerService] Published RUNBOOK_JOB => " + event.getEventId()
+                            + " (chunk " + (event.getPayload().getChunkIndex() + 1) + "/"
+                            + event.getPayload().getChunkCount() + ")");
+                    }
+                });
         } catch (Exception e) {
             e.printStackTrace();
+            return CompletableFuture.failedFuture(e);
         }
     }
 }
@@ -0,0 +1,120 @@
+package com.capstone.parser.service;
+
+import com.capstone.parser.config.CheckpointProperties;
+import com.capstone.parser.model.JobCheckpoint;
+import com.capstone.parser.model.JobCheckpointSegment;
+import com.capstone.parser.repository.JobCheckpointRepository;
+import com.capstone.parser.repository.JobCheckpointSegmentRepository;
+import com.capstone.parser.service.processor.JobResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores the progress of long parse jobs in MySQL, keyed by the event's ID, so a
+ * redelivered ParseRequestEvent resumes after the last checkpoint instead of starting
+ * over from alert zero, on this or any other parser instance.
+ */
+@Service
+public class JobCheckpointService {
+
+    private final JobCheckpointRepository checkpointRepository;
+    private final JobCheckpointSegmentRepository segmentRepository;
+    private final CheckpointProperties config;
+
+    public JobCheckpointService(JobCheckpointRepository checkpointRepository,
+                                JobCheckpointSegmentRepository segmentRepository,
+                                CheckpointProperties config) {
+        this.checkpointRepository = checkpointRepository;
+        this.segmentRepository = segmentRepository;
+        this.config = config;
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    public int getEveryAlerts() {
+        return config.getEveryAlerts();
+    }
+
+    /**
+     * The last checkpoint an earlier attempt of this job wrote for the same file, or null.
+     */
+    public JobCheckpoint find(String eventId, String filePath) {
+        JobCheckpoint checkpoint = checkpointRepository.findById(eventId).orElse(null);
+        return checkpoint != null && filePath.equals(checkpoint.getFilePath()) ? checkpoint : null;
+    }
+
+    /**
+     * The findings the job recorded up to its last checkpoint, in file order.
+     */
+    public List<JobResult.FindingChange> loadChanges(String eventId) {
+        List<JobResult.FindingChange> changes = new ArrayList<>();
+        for (JobCheckpointSegment segment : segmentRepository.findByEventIdOrderBySeq(eventId)) {
+            FindingChangeCodec.decode(segment.getChanges(), changes);
+        }
+        return changes;
+    }
+
+    /**
+     * Move the job's checkpoint to alertsDone/byteOffset and append the findings recorded
+     * since the previous one.
+     */
+    @Transactional
+    public void save(String eventId, String filePath, String esIndex, long alertsDone, long byteOffset,
+                     List<JobResult.FindingChange> newChanges) {
+        JobCheckpoint checkpoint = checkpointRepository.findById(eventId).orElseGet(() -> {
+            JobCheckpoint created = new JobCheckpoint();
+            created.setEventId(eventId);
+            return created;
+        });
+        checkpoint.setFilePath(filePath);
+        checkpoint.setEsIndex(esIndex);
+        checkpoint.setAlertsDone(alertsDone);
+        checkpoint.setByteOffset(byteOffset);
+        checkpoint.setSegments(checkpoint.getSegments() + 1);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+
+        JobCheckpointSegment segment = new JobCheckpointSegment();
+        segment.setEventId(eventId);
+        segment.setSeq(checkpoint.getSegments());
+        segment.setChanges(FindingChangeCodec.encode(newChanges));
+
+        segmentRepository.save(segment);
+        checkpointRepository.save(checkpoint);
+    }
+
+    /**
+     * Drop the job's checkpoint once its outcome is published.
+     */
+    @Transactional
+    public void complete(String eventId) {
+        segmentRepository.deleteByEventId(eventId);
+        checkpointRepository.deleteById(eventId);
+    }
+
+    /**
+     * Drop the checkpoints of jobs that were abandoned or never retried, every
+     * parser.checkpoint.purge-interval.
+     */
+    @Scheduled(fixedDelayString = "#{@checkpointProperties.purgeInterval.toMillis()}")
+    public void purgeExpired() {
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(config.getRetention());
+            List<JobCheckpoint> expired = checkpointRepository.findByUpdatedAtBefore(cutoff);
+            for (JobCheckpoint checkpoint : expired) {
+                complete(checkpoint.getEventId());
+            }
+            if (!expired.isEmpty()) {
+                System.out.println("[JobCheckpointService] Dropped " + expired.size() + " expired checkpoints");
+            }
+        } catch (Exception e) {
+            System.err.println("[JobCheckpointService] Purge of expired checkpoints failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.capstone.parser.service;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Structured scope for the I/O-bound sub-steps of one parse job. Each forked subtask
+ * runs on its own virtual thread, is joined with a per-stage timeout, and anything
+ * still running when the scope closes (the job finished, failed or was cancelled) is
+ * interrupted, so no subtask outlives its job.
+ *
+ * This mirrors java.util.concurrent.StructuredTaskScope, which is still a preview API
+ * on Java 21 and would need --enable-preview at compile and run time.
+ */
+public final class JobScope implements AutoCloseable {
+
+    private final ExecutorService executor;
+
+    public JobScope(String jobName) {
+        this.executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("job-" + jobName + "-", 0).factory());
+    }
+
+    public <T> Subtask<T> fork(String stage, Callable<T> task) {
+        return new Subtask<>(stage, executor.submit(task));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Handle to a forked stage.
+     */
+    public static final class Subtask<T> {
+
+        private final String stage;
+        private final Future<T> future;
+
+        private Subtask(String stage, Future<T> future) {
+            this.stage = stage;
+            this.future = future;
+        }
+
+        /**
+         * Whether the stage has finished, so {@link #join} would not wait.
+         */
+        public boolean isDone() {
+            return future.isDone();
+        }
+
+        /**
+         * Wait for the stage's result. On timeout the stage is cancelled; a failure of the
+         * stage is rethrown as-is.
+         */
+        public T join(Duration timeout) throws Exception {
+            try {
+                return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                throw new TimeoutException("Stage '" + stage + "' timed out after " + timeout);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
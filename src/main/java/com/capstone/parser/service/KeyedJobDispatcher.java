@@ -0,0 +1,136 @@
+package com.capstone.parser.service;
+
+import com.capstone.parser.enums.ToolTypes;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs parse jobs on one serial lane per (index, tool) pair. All jobs touching the same
+ * index's de-dup state for a tool run one after another, in submission order, while jobs
+ * for any other pair run in parallel and never wait behind them. A lane only exists
+ * while it has jobs queued or running.
+ *
+ * Jobs run on virtual threads, so a job blocked on ES or Kafka does not hold a
+ * platform thread, and cancelling a job's future interrupts it. A job's timeout counts
+ * from when it starts running (see {@link LaneJob#get(Duration)}), so time spent queued
+ * behind earlier jobs of its lane is not held against it.
+ */
+@Component
+public class KeyedJobDispatcher {
+
+    /**
+     * Allowance on top of the queued jobs' timeouts for a job to get started.
+     */
+    public static final Duration START_GRACE = Duration.ofSeconds(10);
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("parse-job-", 0).factory());
+    private final ConcurrentHashMap<LaneKey, Lane> lanes = new ConcurrentHashMap<>();
+
+    /**
+     * Queue a job on the lane of this index and tool. Cancelling the returned future
+     * with mayInterruptIfRunning interrupts the running job; a job cancelled while
+     * queued never runs.
+     */
+    public <T> LaneJob<T> submit(String esIndex, ToolTypes toolType, Callable<T> job) {
+        LaneKey key = new LaneKey(esIndex, toolType);
+        List<LaneJob<T>> submitted = new ArrayList<>(1);
+        lanes.compute(key, (k, lane) -> {
+            Lane queued = lane != null ? lane : new Lane();
+            LaneJob<T> task = new LaneJob<>(job, queued.pending);
+            queued.pending++;
+            // FutureTask.run() never throws, so a failed job does not stall the lane.
+            queued.tail = queued.tail.thenRunAsync(() -> {
+                try {
+                    task.run();
+                } finally {
+                    finished(k);
+                }
+            }, executor);
+            submitted.add(task);
+            return queued;
+        });
+        return submitted.get(0);
+    }
+
+    private void finished(LaneKey key) {
+        lanes.computeIfPresent(key, (k, lane) -> --lane.pending == 0 ? null : lane);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private record LaneKey(String esIndex, ToolTypes toolType) {
+    }
+
+    /**
+     * The last job queued on a lane and the number of its jobs not finished yet; both
+     * only change inside the map's compute for the lane's key.
+     */
+    private static final class Lane {
+        private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+        private int pending;
+    }
+
+    /**
+     * A job queued on a lane, knowing how many jobs of its lane were queued or running
+     * ahead of it when it was submitted.
+     */
+    public static final class LaneJob<T> extends FutureTask<T> {
+
+        private final int jobsAhead;
+        private final CompletableFuture<Long> started = new CompletableFuture<>();
+
+        private LaneJob(Callable<T> job, int jobsAhead) {
+            super(job);
+            this.jobsAhead = jobsAhead;
+        }
+
+        @Override
+        public void run() {
+            if (!isDone()) {
+                started.complete(System.nanoTime());
+            }
+            super.run();
+        }
+
+        /**
+         * Wait for the job to finish, allowing it runTimeout from when it started running.
+         * Waiting for it to start is bounded by every job ahead of it using up the same
+         * timeout, plus {@link #START_GRACE}. A job that is not done in time is cancelled,
+         * interrupting it if it runs.
+         */
+        public T get(Duration runTimeout) throws InterruptedException, ExecutionException, TimeoutException {
+            long timeoutNanos = runTimeout.toNanos();
+            long startedAt;
+            try {
+                startedAt = started.get(jobsAhead * timeoutNanos + START_GRACE.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                cancel(true);
+                throw new TimeoutException("Job did not start within " + START_GRACE + " after the "
+                    + jobsAhead + " jobs ahead of it");
+            }
+            try {
+                return get(Math.max(0, startedAt + timeoutNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                cancel(true);
+                throw new TimeoutException("Job did not finish within " + runTimeout + " of starting");
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.capstone.parser.service;
+
+import com.capstone.parser.enums.ToolTypes;
+import com.capstone.parser.service.processor.JobResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters of the parse pipeline, exposed through the actuator metrics and
+ * prometheus endpoints. Counters and the de-dup state summary are tagged with the tool
+ * and the tenant (its ES index). The timers publish a percentiles histogram, so they are
+ * tagged by stage or operation only: a tenant tag would multiply every bucket per tenant.
+ *
+ * Stages of a job (parser.job.stage): dedup-fetch, read, map, dedup, bulk-flush,
+ * refresh, publish, and job for the whole event.
+ */
+@Component
+public class ParserMetrics {
+
+    private final MeterRegistry registry;
+
+    public ParserMetrics(MeterRegistry registry, DedupCache dedupCache) {
+        this.registry = registry;
+
+        Gauge.builder("parser.dedup.cache.entries", dedupCache, c -> c.getStats().entries())
+            .description("(index, tool) de-dup states held in the cache")
+            .register(registry);
+        Gauge.builder("parser.dedup.cache.findings", dedupCache, c -> c.getStats().findings())
+            .description("Findings held by all cached de-dup states")
+            .register(registry);
+        FunctionCounter.builder("parser.dedup.cache.lookups", dedupCache, c -> c.getStats().hits())
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("parser.dedup.cache.lookups", dedupCache, c -> c.getStats().misses())
+            .tag("result", "miss")
+            .register(registry);
+        FunctionCounter.builder("parser.dedup.cache.evictions", dedupCache, c -> c.getStats().evictions())
+            .register(registry);
+    }
+
+    public void recordStage(String stage, ToolTypes toolType, long nanos) {
+        Timer.builder("parser.job.stage")
+            .description("Time spent per stage of a parse job")
+            .tag("stage", stage)
+            .tag("tool", toolType.name())
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordAlertsParsed(ToolTypes toolType, String esIndex, int alerts) {
+        Counter.builder("parser.alerts.parsed")
+            .tag("tool", toolType.name())
+            .tag("tenant", esIndex)
+            .register(registry)
+            .increment(alerts);
+    }
+
+    public void recordFindings(JobResult result) {
+        countFindings(result, "new", result.getNewCount());
+        countFindings(result, "updated", result.getUpdatedCount());
+        countFindings(result, "unchanged", result.getUnchangedCount());
+        countFindings(result, "failed", result.getWriteFailures().size());
+    }
+
+    private void countFindings(JobResult result, String outcome, int count) {
+        Counter.builder("parser.findings")
+            .tag("outcome", outcome)
+            .tag("tool", result.getToolType().name())
+            .tag("tenant", result.getEsIndex())
+            .register(registry)
+            .increment(count);
+    }
+
+    public void recordRepeatedJob(ToolTypes toolType, String esIndex) {
+        Counter.builder("parser.jobs.repeated")
+            .description("Parse events answered with the recorded result of an earlier job")
+            .tag("tool", toolType.name())
+            .tag("tenant", esIndex)
+            .register(registry)
+            .increment();
+    }
+
+    public void recordDedupStateSize(ToolTypes toolType, String esIndex, int findings) {
+        DistributionSummary.builder("parser.dedup.state.size")
+            .description("Existing findings held in a job's de-dup state when it starts")
+            .tag("tool", toolType.name())
+            .tag("tenant", esIndex)
+            .register(registry)
+            .record(findings);
+    }
+
+    /**
+     * Run one request to ES and record its latency under the given operation name.
+     */
+    public <T> T timeEsRequest(String operation, EsRequest<T> request) throws IOException {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T response = request.send();
+            success = true;
+            return response;
+        } finally {
+            recordEsRequest(operation, System.nanoTime() - start, success);
+        }
+    }
+
+    /**
+     * Latency of one request to ES (bulk, mget, msearch, search, refresh, ...).
+     */
+    public void recordEsRequest(String operation, long nanos, boolean success) {
+        Timer.builder("parser.es.requests")
+            .description("Latency of requests to Elasticsearch")
+            .tag("operation", operation)
+            .tag("outcome", success ? "success" : "error")
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @FunctionalInterface
+    public interface EsRequest<T> {
+        T send() throws IOException;
+    }
+}
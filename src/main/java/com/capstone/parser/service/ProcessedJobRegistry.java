@@ -0,0 +1,160 @@
+package com.capstone.parser.service;
+
+import com.capstone.parser.config.ProcessedJobProperties;
+import com.capstone.parser.enums.FindingChangeType;
+import com.capstone.parser.enums.ToolTypes;
+import com.capstone.parser.model.ProcessedJob;
+import com.capstone.parser.repository.ProcessedJobRepository;
+import com.capstone.parser.service.processor.JobResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Remembers the parse jobs whose outcome was published, per tenant and tool, for
+ * parser.processed-jobs.ttl. Kafka redelivers events and upstream retries send new events
+ * for the same scan, so before a job runs it is looked up here:
+ * <ul>
+ *   <li>the same event again is answered with the result that was published for it;</li>
+ *   <li>a new event for a file with the same content as the last job of the tenant and
+ *       tool is answered with that job's findings, all unchanged: re-parsing it would
+ *       find every alert as it left them.</li>
+ * </ul>
+ * Only the last job of a tenant and tool is matched by file, since any job after it may
+ * have changed the findings.
+ */
+@Service
+public class ProcessedJobRegistry {
+
+    private static final int DIGEST_BUFFER_SIZE = 1 << 20;
+
+    private final ProcessedJobRepository repository;
+    private final ProcessedJobProperties config;
+
+    public ProcessedJobRegistry(ProcessedJobRepository repository, ProcessedJobProperties config) {
+        this.repository = repository;
+        this.config = config;
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * SHA-256 of the file's bytes as stored (compressed files are not inflated), in hex.
+     */
+    String digestFile(String filePath) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        byte[] buffer = new byte[DIGEST_BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(Path.of(filePath))) {
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * The result to publish for a job that repeats a recorded one, or null if it has to run
+     * (also when the registry or the file cannot be read). The event ID is checked first;
+     * the file is only digested if the last job of the tenant and tool read a file of the
+     * same size.
+     */
+    public JobResult findRepeat(String eventId, String tenantId, ToolTypes tool, String esIndex, String filePath) {
+        try {
+            return lookup(eventId, tenantId, tool, esIndex, filePath);
+        } catch (Exception e) {
+            System.err.println("[ProcessedJobRegistry] Lookup of job " + eventId + " failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private JobResult lookup(String eventId, String tenantId, ToolTypes tool, String esIndex, String filePath)
+            throws IOException {
+        LocalDateTime cutoff = LocalDateTime.now().minus(config.getTtl());
+
+        ProcessedJob sameEvent = repository.findById(eventId).orElse(null);
+        if (sameEvent != null && isLive(sameEvent.getProcessedAt(), cutoff)
+                && tenantId.equals(sameEvent.getTenantId()) && tool == sameEvent.getTool()
+                && esIndex.equals(sameEvent.getEsIndex())) {
+            return JobResult.replayed(tool, esIndex, FindingChangeCodec.decode(sameEvent.getChanges()));
+        }
+
+        ProcessedJobRepository.ProcessedJobSummary last =
+            repository.findFirstByTenantIdAndToolOrderByProcessedAtDesc(tenantId, tool);
+        if (last == null || !isLive(last.getProcessedAt(), cutoff) || !esIndex.equals(last.getEsIndex())
+                || last.getFileSize() != Files.size(Path.of(filePath))
+                || !digestFile(filePath).equals(last.getFileDigest())) {
+            return null;
+        }
+        ProcessedJob lastJob = repository.findById(last.getEventId()).orElse(null);
+        if (lastJob == null) {
+            return null;
+        }
+        List<JobResult.FindingChange> changes = FindingChangeCodec.decode(lastJob.getChanges());
+        List<JobResult.FindingChange> unchanged = new ArrayList<>(changes.size());
+        for (JobResult.FindingChange change : changes) {
+            unchanged.add(new JobResult.FindingChange(change.findingId(), FindingChangeType.UNCHANGED));
+        }
+        return JobResult.replayed(tool, esIndex, unchanged);
+    }
+
+    /**
+     * Record a job whose outcome was published, with the digest of its file. Jobs with
+     * rejected writes are not recorded, so a retry of them runs again. Failures are logged;
+     * the job is then just not known to later lookups.
+     */
+    public void record(String eventId, String tenantId, String filePath, JobResult result) {
+        if (!result.getWriteFailures().isEmpty()) {
+            return;
+        }
+        try {
+            ProcessedJob job = new ProcessedJob();
+            job.setEventId(eventId);
+            job.setTenantId(tenantId);
+            job.setTool(result.getToolType());
+            job.setEsIndex(result.getEsIndex());
+            job.setFileSize(Files.size(Path.of(filePath)));
+            job.setFileDigest(digestFile(filePath));
+            job.setProcessedAt(LocalDateTime.now());
+            job.setChanges(FindingChangeCodec.encode(result.getChanges()));
+            repository.save(job);
+        } catch (Exception e) {
+            System.err.println("[ProcessedJobRegistry] Could not record job " + eventId + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Delete the jobs older than the TTL, every parser.processed-jobs.purge-interval.
+     */
+    @Scheduled(fixedDelayString = "#{@processedJobProperties.purgeInterval.toMillis()}")
+    public void purgeExpired() {
+        try {
+            int dropped = repository.deleteProcessedBefore(LocalDateTime.now().minus(config.getTtl()));
+            if (dropped > 0) {
+                System.out.println("[ProcessedJobRegistry] Dropped " + dropped + " expired processed jobs");
+            }
+        } catch (Exception e) {
+            System.err.println("[ProcessedJobRegistry] Purge of expired processed jobs failed: " + e.getMessage());
+        }
+    }
+
+    private static boolean isLive(LocalDateTime processedAt, LocalDateTime cutoff) {
+        return processedAt != null && processedAt.isAfter(cutoff);
+    }
+}
@@ -0,0 +1,84 @@
+package com.capstone.parser.service;
+
+import com.capstone.parser.config.RunbookProperties;
+import com.capstone.parser.dto.event.RunbookJobEvent;
+import com.capstone.parser.dto.event.payload.RunbookJobEventPayload;
+import com.capstone.parser.enums.FindingChangeType;
+import com.capstone.parser.enums.RunbookReportMode;
+import com.capstone.parser.service.processor.JobResult;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns a finished job into the RunbookJobEvents to publish: the reported finding ids
+ * (all, or only new and updated ones with parser.runbook.report=CHANGED), split into
+ * chunks so no event carries more than max-event-bytes of ids.
+ */
+@Component
+public class RunbookJobEventFactory {
+
+    // room for the envelope and the other payload fields
+    private static final int EVENT_OVERHEAD_BYTES = 1024;
+
+    private final RunbookProperties runbookProperties;
+
+    public RunbookJobEventFactory(RunbookProperties runbookProperties) {
+        this.runbookProperties = runbookProperties;
+    }
+
+    /**
+     * The events for this job, in order; empty if there is nothing to report.
+     */
+    public List<RunbookJobEvent> eventsFor(String tenantId, String parseEventId, JobResult result) {
+        boolean changedOnly = runbookProperties.getReport() == RunbookReportMode.CHANGED;
+        int budget = Math.max(1, runbookProperties.getMaxEventBytes() - EVENT_OVERHEAD_BYTES);
+
+        List<RunbookJobEventPayload> chunks = new ArrayList<>();
+        RunbookJobEventPayload chunk = null;
+        int chunkBytes = 0;
+        for (JobResult.FindingChange change : result.getChanges()) {
+            if (changedOnly && change.type() == FindingChangeType.UNCHANGED) {
+                continue;
+            }
+            // quotes and comma; new/updated ids are listed twice (findingIds and their category)
+            int bytes = change.findingId().length() + 3;
+            if (change.type() != FindingChangeType.UNCHANGED) {
+                bytes *= 2;
+            }
+            if (chunk == null || (chunkBytes + bytes > budget && !chunk.getFindingIds().isEmpty())) {
+                chunk = newChunk(tenantId, parseEventId, result);
+                chunks.add(chunk);
+                chunkBytes = 0;
+            }
+            chunk.getFindingIds().add(change.findingId());
+            if (change.type() == FindingChangeType.NEW) {
+                chunk.getNewFindingIds().add(change.findingId());
+            } else if (change.type() == FindingChangeType.UPDATED) {
+                chunk.getUpdatedFindingIds().add(change.findingId());
+            }
+            chunkBytes += bytes;
+        }
+
+        List<RunbookJobEvent> events = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            RunbookJobEventPayload payload = chunks.get(i);
+            payload.setChunkIndex(i);
+            payload.setChunkCount(chunks.size());
+            events.add(new RunbookJobEvent(payload));
+        }
+        return events;
+    }
+
+    private static RunbookJobEventPayload newChunk(String tenantId, String parseEventId, JobResult result) {
+        RunbookJobEventPayload payload = new RunbookJobEventPayload(tenantId, new ArrayList<>());
+        payload.setNewFindingIds(new ArrayList<>());
+        payload.setUpdatedFindingIds(new ArrayList<>());
+        payload.setNewCount(result.getNewCount());
+        payload.setUpdatedCount(result.getUpdatedCount());
+        payload.setUnchangedCount(result.getUnchangedCount());
+        payload.setParseEventId(parseEventId);
+        return payload;
+    }
+}
@@ -0,0 +1,170 @@
+package com.capstone.parser.service;
+
+import com.capstone.parser.config.TenantCacheProperties;
+import com.capstone.parser.model.Tenant;
+import com.capstone.parser.repository.TenantRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves tenantIds to tenants without a MySQL round trip per parse event. All tenants
+ * are loaded at startup; an entry older than ttl is still served while it is reloaded in
+ * the background, so a slow or unreachable MySQL never blocks a job of a known tenant.
+ * Unknown tenantIds are remembered for negative-ttl, and stay unknown while MySQL cannot
+ * be reached. Invalidating a tenant also makes {@link TenantIndexManager} check its index
+ * in ES again; a load that was running meanwhile does not put the old row back.
+ */
+@Service
+public class TenantCache {
+
+    private final TenantRepository tenantRepository;
+    private final TenantIndexManager tenantIndexManager;
+    private final TenantCacheProperties config;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    // Bumped by every invalidation, so a load that overlapped one is not cached.
+    private final AtomicLong invalidations = new AtomicLong();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "tenant-cache-refresher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // tenant is null for a tenantId MySQL does not know
+    private record Entry(Tenant tenant, long loadedAtNanos) {
+    }
+
+    public TenantCache(TenantRepository tenantRepository, TenantIndexManager tenantIndexManager,
+                       TenantCacheProperties config) {
+        this.tenantRepository = tenantRepository;
+        this.tenantIndexManager = tenantIndexManager;
+        this.config = config;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        if (!config.isPreload()) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            int loaded = 0;
+            for (Tenant tenant : tenantRepository.findAll()) {
+                if (tenant.getTenantId() != null) {
+                    entries.put(tenant.getTenantId(), new Entry(tenant, now));
+                    loaded++;
+                }
+            }
+            System.out.println("[TenantCache] Preloaded " + loaded + " tenants");
+        } catch (Exception e) {
+            // Tenants are loaded one by one on first use instead.
+            System.err.println("[TenantCache] Preload skipped: " + e.getMessage());
+        }
+    }
+
+    /**
+     * The tenant with this tenantId, or null if there is none. Only a tenantId that is
+     * not cached at all needs MySQL; if that lookup fails, the exception is thrown.
+     */
+    public Tenant resolve(String tenantId) {
+        Entry entry = entries.get(tenantId);
+        if (entry == null) {
+            return load(tenantId, null);
+        }
+        long age = System.nanoTime() - entry.loadedAtNanos();
+        if (entry.tenant() == null) {
+            if (age < config.getNegativeTtl().toNanos()) {
+                return null;
+            }
+            try {
+                return load(tenantId, entry);
+            } catch (Exception e) {
+                // Still unknown as far as we can tell; ask MySQL again after another negative-ttl.
+                System.err.println("[TenantCache] Reload of unknown tenantId=" + tenantId + " failed: " + e.getMessage());
+                entries.replace(tenantId, entry, new Entry(null, System.nanoTime()));
+                return null;
+            }
+        }
+        if (age >= config.getTtl().toNanos()) {
+            refreshInBackground(tenantId, entry);
+        }
+        return entry.tenant();
+    }
+
+    /**
+     * Read the tenant from MySQL and cache it in place of the replaced entry (null if
+     * there is none), unless another load got there first or the tenant was invalidated
+     * while it was read.
+     */
+    private Tenant load(String tenantId, Entry replaced) {
+        long invalidationsBefore = invalidations.get();
+        Entry loaded = new Entry(tenantRepository.findByTenantId(tenantId), System.nanoTime());
+        boolean cached = replaced == null
+            ? entries.putIfAbsent(tenantId, loaded) == null
+            : entries.replace(tenantId, replaced, loaded);
+        if (cached && invalidations.get() != invalidationsBefore) {
+            entries.remove(tenantId, loaded);
+        }
+        return loaded.tenant();
+    }
+
+    private void refreshInBackground(String tenantId, Entry stale) {
+        if (!refreshing.add(tenantId)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    load(tenantId, stale);
+                } catch (Exception e) {
+                    // Keep serving the cached tenant; the next resolve after ttl tries again.
+                    System.err.println("[TenantCache] Refresh of tenantId=" + tenantId + " failed: " + e.getMessage());
+                } finally {
+                    refreshing.remove(tenantId);
+                }
+            });
+        } catch (Exception e) {
+            refreshing.remove(tenantId);
+        }
+    }
+
+    /**
+     * Forget a tenant, e.g. after its index or settings changed, so the next event for it
+     * reads MySQL and checks that its index exists.
+     */
+    public void invalidate(String tenantId) {
+        invalidations.incrementAndGet();
+        forgetIndex(entries.remove(tenantId));
+    }
+
+    public void invalidateAll() {
+        for (String tenantId : entries.keySet()) {
+            invalidate(tenantId);
+        }
+    }
+
+    private void forgetIndex(Entry entry) {
+        if (entry != null && entry.tenant() != null && entry.tenant().getEsIndex() != null) {
+            tenantIndexManager.forget(entry.tenant().getEsIndex());
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+}
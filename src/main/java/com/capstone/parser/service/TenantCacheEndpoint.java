@@ -0,0 +1,40 @@
+package com.capstone.parser.service;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * The "tenants" endpoint: its delete operations drop every cached tenant, or a single one
+ * by tenantId, so a tenant changed in MySQL is picked up right away (and its index is
+ * checked in ES again). It is exposed over JMX only, since it is unauthenticated.
+ */
+@Component
+@Endpoint(id = "tenants")
+public class TenantCacheEndpoint {
+
+    private final TenantCache tenantCache;
+
+    public TenantCacheEndpoint(TenantCache tenantCache) {
+        this.tenantCache = tenantCache;
+    }
+
+    @ReadOperation
+    public Map<String, Object> cached() {
+        return Map.of("cachedTenants", tenantCache.size());
+    }
+
+    @DeleteOperation
+    public void invalidateAll() {
+        tenantCache.invalidateAll();
+    }
+
+    @DeleteOperation
+    public void invalidate(@Selector String tenantId) {
+        tenantCache.invalidate(tenantId);
+    }
+}
@@ -0,0 +1,116 @@
+package com.capstone.parser.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+
+import com.capstone.parser.config.ElasticProperties;
+import com.capstone.parser.model.Tenant;
+import com.capstone.parser.repository.TenantRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Single owner of tenant index creation. Remembers every index it has seen exist, so only
+ * the first job for a tenant pays for the exists/create round trip; concurrent first
+ * callers for the same index are serialized so creation happens once. The lock is a
+ * ReentrantLock so a virtual thread waiting on ES does not pin its carrier.
+ */
+@Service
+public class TenantIndexManager {
+
+    private static final String ALREADY_EXISTS = "resource_already_exists_exception";
+
+    private final ElasticsearchClient esClient;
+    private final TenantRepository tenantRepository;
+    private final ElasticProperties elasticProperties;
+
+    private final Set<String> knownIndices = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, ReentrantLock> creationLocks = new ConcurrentHashMap<>();
+
+    public TenantIndexManager(ElasticsearchClient esClient, TenantRepository tenantRepository,
+                              ElasticProperties elasticProperties) {
+        this.esClient = esClient;
+        this.tenantRepository = tenantRepository;
+        this.elasticProperties = elasticProperties;
+    }
+
+    /**
+     * Make sure the index exists, creating it if needed. After the first successful call
+     * for an index this is a set lookup with no ES traffic.
+     */
+    public void ensureIndex(String indexName) throws IOException {
+        if (knownIndices.contains(indexName)) {
+            return;
+        }
+        ReentrantLock lock = creationLocks.computeIfAbsent(indexName, k -> new ReentrantLock());
+        lock.lock();
+        try {
+            if (knownIndices.contains(indexName)) {
+                return;
+            }
+            boolean indexExists = esClient.indices()
+                    .exists(e -> e.index(indexName))
+                    .value();
+            if (!indexExists) {
+                try {
+                    esClient.indices().create(c -> c.index(indexName));
+                    System.out.println("[TenantIndexManager] Created index=" + indexName);
+                } catch (ElasticsearchException e) {
+                    // Another parser instance won the race; the index is there either way.
+                    if (e.error() == null || !ALREADY_EXISTS.equals(e.error().type())) {
+                        throw e;
+                    }
+                }
+            }
+            knownIndices.add(indexName);
+        } finally {
+            lock.unlock();
+        }
+        creationLocks.remove(indexName, lock);
+    }
+
+    /**
+     * Drop an index from the known set, e.g. after it was deleted outside the parser,
+     * so the next ensureIndex call checks ES again. Called by {@link TenantCache} when
+     * a tenant is invalidated.
+     */
+    public void forget(String indexName) {
+        knownIndices.remove(indexName);
+    }
+
+    /**
+     * Pre-create the index of every known tenant so the first job of each tenant skips
+     * the existence check as well. Failures are logged and left to the lazy path.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void provisionTenantIndices() {
+        if (!elasticProperties.isProvisionIndicesOnStartup()) {
+            return;
+        }
+        try {
+            int provisioned = 0;
+            for (Tenant tenant : tenantRepository.findAll()) {
+                String esIndex = tenant.getEsIndex();
+                if (esIndex == null || esIndex.isBlank()) {
+                    continue;
+                }
+                try {
+                    ensureIndex(esIndex);
+                    provisioned++;
+                } catch (Exception e) {
+                    System.err.println("[TenantIndexManager] Could not provision index=" + esIndex
+                        + " for tenantId=" + tenant.getTenantId() + ": " + e.getMessage());
+                }
+            }
+            System.out.println("[TenantIndexManager] Provisioned " + provisioned + " tenant indices at startup");
+        } catch (Exception e) {
+            System.err.println("[TenantIndexManager] Startup provisioning skipped: " + e.getMessage());
+        }
+    }
+}
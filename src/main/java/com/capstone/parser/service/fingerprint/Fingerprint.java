@@ -0,0 +1,57 @@
+package com.capstone.parser.service.fingerprint;
+
+/**
+ * A 128-bit finding identity, kept as two longs so it can be compared and hashed
+ * without allocating a String. {@link #toHex()} gives the 32-char form used in
+ * document ids (for MD5 it is the same string the old String-keyed de-dup used).
+ */
+public record Fingerprint(long high, long low) {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    public String toHex() {
+        char[] out = new char[32];
+        writeHex(high, out, 0);
+        writeHex(low, out, 16);
+        return new String(out);
+    }
+
+    /**
+     * Parse the 32-char form produced by {@link #toHex()}.
+     */
+    public static Fingerprint fromHex(String hex) {
+        if (hex.length() != 32) {
+            throw new IllegalArgumentException("Not a 32-char fingerprint: " + hex);
+        }
+        return new Fingerprint(Long.parseUnsignedLong(hex, 0, 16, 16), Long.parseUnsignedLong(hex, 16, 32, 16));
+    }
+
+    /**
+     * Whether hex is this fingerprint's {@link #toHex()} form, compared without building it.
+     */
+    public boolean hasHex(String hex) {
+        if (hex == null || hex.length() != 32) {
+            return false;
+        }
+        for (int i = 0; i < 16; i++) {
+            int shift = 60 - 4 * i;
+            if (hex.charAt(i) != HEX[(int) ((high >>> shift) & 0xF)]
+                    || hex.charAt(16 + i) != HEX[(int) ((low >>> shift) & 0xF)]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeHex(long value, char[] out, int offset) {
+        for (int i = 15; i >= 0; i--) {
+            out[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return toHex();
+    }
+}
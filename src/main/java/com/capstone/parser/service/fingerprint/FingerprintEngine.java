@@ -0,0 +1,25 @@
+package com.capstone.parser.service.fingerprint;
+
+import com.capstone.parser.enums.FingerprintAlgorithm;
+
+/**
+ * Computes the de-dup identity of a finding from its title and GitHub alert number.
+ */
+public interface FingerprintEngine {
+
+    /**
+     * @param title  the finding title, may be null
+     * @param number the alert "number" from toolAdditionalProperties, may be null
+     */
+    Fingerprint fingerprint(String title, Object number);
+
+    static FingerprintEngine forAlgorithm(FingerprintAlgorithm algorithm) {
+        switch (algorithm) {
+            case MD5:
+                return new Md5FingerprintEngine();
+            case MURMUR3:
+            default:
+                return new Murmur3FingerprintEngine();
+        }
+    }
+}
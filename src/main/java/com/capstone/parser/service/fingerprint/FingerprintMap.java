@@ -0,0 +1,130 @@
+package com.capstone.parser.service.fingerprint;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Open-addressing (linear probing) map keyed by the two longs of a {@link Fingerprint}.
+ * Keys live in flat long[] arrays, so a lookup compares primitives instead of hashing
+ * and comparing 32-char Strings, and no entry objects are allocated. Null values are
+ * not supported (a null slot marks an empty bucket) and entries cannot be removed,
+ * which is all the de-dup maps need. Not thread-safe.
+ */
+public final class FingerprintMap<V> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] highs;
+    private long[] lows;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public FingerprintMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public FingerprintMap(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3L / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(Fingerprint key) {
+        return get(key) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(Fingerprint key) {
+        long high = key.high();
+        long low = key.low();
+        for (int slot = slot(high, low); ; slot = (slot + 1) & mask) {
+            Object value = values[slot];
+            if (value == null) {
+                return null;
+            }
+            if (highs[slot] == high && lows[slot] == low) {
+                return (V) value;
+            }
+        }
+    }
+
+    /**
+     * @return the previous value for the key, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(Fingerprint key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("FingerprintMap does not support null values");
+        }
+        long high = key.high();
+        long low = key.low();
+        int slot = slot(high, low);
+        for (; values[slot] != null; slot = (slot + 1) & mask) {
+            if (highs[slot] == high && lows[slot] == low) {
+                Object previous = values[slot];
+                values[slot] = value;
+                return (V) previous;
+            }
+        }
+        highs[slot] = high;
+        lows[slot] = low;
+        values[slot] = value;
+        if (++size > resizeAt) {
+            rehash(values.length << 1);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<Fingerprint, V> action) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                action.accept(new Fingerprint(highs[i], lows[i]), (V) values[i]);
+            }
+        }
+    }
+
+    private int slot(long high, long low) {
+        // Both halves are already well mixed; folding them is enough to spread the slots.
+        long h = high ^ low;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        highs = new long[capacity];
+        lows = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = capacity * 3 / 4;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldHighs = highs;
+        long[] oldLows = lows;
+        Object[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            Object value = oldValues[i];
+            if (value != null) {
+                int slot = slot(oldHighs[i], oldLows[i]);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                highs[slot] = oldHighs[i];
+                lows[slot] = oldLows[i];
+                values[slot] = value;
+            }
+        }
+    }
+}
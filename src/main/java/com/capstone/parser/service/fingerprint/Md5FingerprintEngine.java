@@ -0,0 +1,25 @@
+package com.capstone.parser.service.fingerprint;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The original identity: MD5 over "title|number". Its hex form is byte-for-byte what
+ * DeDupService used to produce, so it still matches documents keyed by it.
+ */
+public class Md5FingerprintEngine implements FingerprintEngine {
+
+    @Override
+    public Fingerprint fingerprint(String title, Object number) {
+        String input = (title != null ? title : "") + "|" + (number != null ? number.toString() : "");
+        try {
+            MessageDigest md = MessageDigest.getInstance("MD5");
+            ByteBuffer digest = ByteBuffer.wrap(md.digest(input.getBytes(StandardCharsets.UTF_8)));
+            return new Fingerprint(digest.getLong(), digest.getLong());
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("MD5 algorithm not found", e);
+        }
+    }
+}
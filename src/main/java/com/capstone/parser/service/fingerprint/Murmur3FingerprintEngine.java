@@ -0,0 +1,24 @@
+package com.capstone.parser.service.fingerprint;
+
+/**
+ * MurmurHash3 x64 128-bit over the UTF-8 bytes of title, '|' and the decimal alert
+ * number. The bytes are fed straight into the hasher, so no intermediate String,
+ * byte[] or MessageDigest is created per finding.
+ */
+public class Murmur3FingerprintEngine implements FingerprintEngine {
+
+    @Override
+    public Fingerprint fingerprint(String title, Object number) {
+        Murmur3Hasher128 hasher = new Murmur3Hasher128();
+        if (title != null) {
+            hasher.putUtf8(title);
+        }
+        hasher.putByte((byte) '|');
+        if (number instanceof Integer || number instanceof Long) {
+            hasher.putDecimal(((Number) number).longValue());
+        } else if (number != null) {
+            hasher.putUtf8(number.toString());
+        }
+        return hasher.finish();
+    }
+}
@@ -0,0 +1,151 @@
+package com.capstone.parser.service.fingerprint;
+
+/**
+ * Streaming MurmurHash3 x64 128-bit (seed 0). Bytes are accumulated little-endian into
+ * two longs and mixed every 16 bytes, so input of any length is hashed without buffering.
+ * Produces the same value as the reference implementation over the same bytes.
+ */
+public final class Murmur3Hasher128 {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private long h1;
+    private long h2;
+    private long k1;
+    private long k2;
+    private int blockPos;
+    private long length;
+
+    public Murmur3Hasher128 putByte(byte b) {
+        long v = b & 0xFFL;
+        if (blockPos < 8) {
+            k1 |= v << (blockPos << 3);
+        } else {
+            k2 |= v << ((blockPos - 8) << 3);
+        }
+        length++;
+        if (++blockPos == 16) {
+            mixBlock();
+        }
+        return this;
+    }
+
+    public Murmur3Hasher128 putBytes(byte[] bytes, int offset, int len) {
+        for (int i = offset, end = offset + len; i < end; i++) {
+            putByte(bytes[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Feed the UTF-8 encoding of the characters, handling surrogate pairs;
+     * unpaired surrogates are encoded as '?' like String.getBytes(UTF_8).
+     */
+    public Murmur3Hasher128 putUtf8(CharSequence s) {
+        for (int i = 0, n = s.length(); i < n; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                putByte((byte) c);
+            } else if (c < 0x800) {
+                putByte((byte) (0xC0 | (c >> 6)));
+                putByte((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                int cp = Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))
+                    ? Character.toCodePoint(c, s.charAt(++i))
+                    : -1;
+                if (cp < 0) {
+                    putByte((byte) '?');
+                } else {
+                    putByte((byte) (0xF0 | (cp >> 18)));
+                    putByte((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                    putByte((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                    putByte((byte) (0x80 | (cp & 0x3F)));
+                }
+            } else {
+                putByte((byte) (0xE0 | (c >> 12)));
+                putByte((byte) (0x80 | ((c >> 6) & 0x3F)));
+                putByte((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Feed the ASCII decimal form of the value (same bytes as Long.toString(value)).
+     */
+    public Murmur3Hasher128 putDecimal(long value) {
+        if (value == Long.MIN_VALUE) {
+            return putUtf8(Long.toString(value));
+        }
+        if (value < 0) {
+            putByte((byte) '-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            putByte((byte) ('0' + (value / divisor) % 10));
+        }
+        return this;
+    }
+
+    public Fingerprint finish() {
+        if (blockPos > 0) {
+            // Tail: the partial block is mixed into h1/h2 without the full-block rounds.
+            if (blockPos > 8) {
+                k2 *= C2;
+                k2 = Long.rotateLeft(k2, 33);
+                k2 *= C1;
+                h2 ^= k2;
+            }
+            k1 *= C1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= C2;
+            h1 ^= k1;
+        }
+
+        long r1 = h1 ^ length;
+        long r2 = h2 ^ length;
+        r1 += r2;
+        r2 += r1;
+        r1 = fmix64(r1);
+        r2 = fmix64(r2);
+        r1 += r2;
+        r2 += r1;
+        return new Fingerprint(r1, r2);
+    }
+
+    private void mixBlock() {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        k1 *= C2;
+        h1 ^= k1;
+        h1 = Long.rotateLeft(h1, 27);
+        h1 += h2;
+        h1 = h1 * 5 + 0x52dce729;
+
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        k2 *= C1;
+        h2 ^= k2;
+        h2 = Long.rotateLeft(h2, 31);
+        h2 += h1;
+        h2 = h2 * 5 + 0x38495ab5;
+
+        k1 = 0;
+        k2 = 0;
+        blockPos = 0;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
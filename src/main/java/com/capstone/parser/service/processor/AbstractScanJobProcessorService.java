@@ -0,0 +1,513 @@
+package com.capstone.parser.service.processor;
+
+import com.capstone.parser.config.DedupProperties;
+import com.capstone.parser.config.ProcessingProperties;
+import com.capstone.parser.enums.ToolTypes;
+import com.capstone.parser.model.Finding;
+import com.capstone.parser.model.JobCheckpoint;
+import com.capstone.parser.model.RawJson;
+import com.capstone.parser.service.BulkIndexService;
+import com.capstone.parser.service.BulkResult;
+import com.capstone.parser.service.BulkSession;
+import com.capstone.parser.service.DeDupService;
+import com.capstone.parser.service.DedupState;
+import com.capstone.parser.service.ElasticSearchService;
+import com.capstone.parser.service.IndexRefreshService;
+import com.capstone.parser.service.JobCheckpointService;
+import com.capstone.parser.service.ParserMetrics;
+import com.capstone.parser.service.JobScope;
+import com.capstone.parser.service.fingerprint.Fingerprint;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared de-dup/save loop for all tool processors. Alerts are streamed from the file
+ * one at a time and bound to the tool's typed alert model A; subclasses only provide
+ * the tool type, the model class and the alert -> Finding mapping.
+ *
+ * Each job runs its I/O-bound stages in a {@link JobScope}: the existing findings are
+ * fetched from ES while the file is already being read and mapped, and the final bulk
+ * flush is bounded by its own timeout. The outcome is returned as a {@link JobResult}.
+ * Several files of the same index can be processed as one job, sharing the de-dup state,
+ * the bulk session and the refresh. With parser.processing.parallel enabled, mapping runs
+ * on the {@link AlertMappingPool} while de-dup stays in file order on the job's thread.
+ *
+ * Each finding stores a digest of the alert JSON it was last seen as. On a re-scan, an
+ * alert with the digest of an existing finding is neither mapped nor compared; only its
+ * existing ID is recorded.
+ *
+ * A job run under job IDs (one per file) is checkpointed through {@link JobCheckpointService},
+ * each file under its own ID; a retry restores the findings each file recorded up to its
+ * last checkpoint and reads on from there.
+ */
+public abstract class AbstractScanJobProcessorService<A> implements ScanJobProcessorService {
+
+    /**
+     * Alerts below which a chunk is mapped by one worker instead of being split further.
+     */
+    private static final int MAP_SPLIT_THRESHOLD = 64;
+
+    protected final ElasticSearchService elasticSearchService;
+    protected final IndexRefreshService indexRefreshService;
+    protected final ParserMetrics metrics;
+    protected final DeDupService deDupService;
+    protected final AlertStreamReader alertStreamReader;
+    protected final AlertMappingPool alertMappingPool;
+    protected final BulkIndexService bulkIndexService;
+    protected final DedupProperties dedupProperties;
+    protected final JobCheckpointService checkpoints;
+    protected final ProcessingProperties.Timeouts timeouts;
+
+    protected AbstractScanJobProcessorService(ProcessorDependencies dependencies) {
+        this.elasticSearchService = dependencies.getElasticSearchService();
+        this.indexRefreshService = dependencies.getIndexRefreshService();
+        this.metrics = dependencies.getMetrics();
+        this.deDupService = dependencies.getDeDupService();
+        this.alertStreamReader = dependencies.getAlertStreamReader();
+        this.alertMappingPool = dependencies.getAlertMappingPool();
+        this.bulkIndexService = dependencies.getBulkIndexService();
+        this.dedupProperties = dependencies.getDedupProperties();
+        this.checkpoints = dependencies.getCheckpoints();
+        this.timeouts = dependencies.getProcessingProperties().getTimeouts();
+    }
+
+    @Override
+    public JobResult processJob(String filePath, String esIndex) throws Exception {
+        return processJobs(List.of(filePath), esIndex).get(0);
+    }
+
+    @Override
+    public JobResult processJob(String jobId, String filePath, String esIndex) throws Exception {
+        return process(List.of(filePath), esIndex, List.of(jobId)).get(0);
+    }
+
+    @Override
+    public List<JobResult> processJobs(List<String> filePaths, String esIndex) throws Exception {
+        return process(filePaths, esIndex, null);
+    }
+
+    @Override
+    public List<JobResult> processJobs(List<String> jobIds, List<String> filePaths, String esIndex) throws Exception {
+        return process(filePaths, esIndex, jobIds);
+    }
+
+    /**
+     * @param jobIds the IDs the checkpoints of each file are kept under, or null to not checkpoint
+     */
+    private List<JobResult> process(List<String> filePaths, String esIndex, List<String> jobIds) throws Exception {
+        ToolTypes toolType = getToolType();
+        List<JobResult> results = new ArrayList<>(filePaths.size());
+
+        boolean checkpointed = jobIds != null && checkpoints != null && checkpoints.isEnabled();
+        List<Resume> resumes = checkpointed ? findResumes(jobIds, filePaths, esIndex) : null;
+
+        try (JobScope scope = new JobScope(toolType + "@" + esIndex)) {
+            // Load existing findings of this tool (warm from a previous job, or from ES)
+            // while the first file is already being read.
+            JobScope.Subtask<DedupState> dedupFetch = scope.fork("dedup-fetch", () -> {
+                long start = System.nanoTime();
+                DedupState acquired = deDupService.acquireDedupState(toolType, esIndex);
+                metrics.recordStage("dedup-fetch", toolType, System.nanoTime() - start);
+                metrics.recordDedupStateSize(toolType, esIndex, acquired.size());
+                return acquired;
+            });
+            DedupState dedupState = null;
+            boolean inSyncWithES = false;
+
+            try {
+                // New and updated findings of all files are buffered and written through the _bulk endpoint.
+                BulkResult bulkResult;
+                try (BulkSession bulkSession = bulkIndexService.openSession(esIndex)) {
+                    // Alerts are mapped as they are streamed from the file and de-duped in batches,
+                    // so fingerprint-id mode can look up a whole batch with one request.
+                    int batchSize = Math.max(1, dedupProperties.getLookupBatchSize());
+                    List<PendingAlert> batch = new ArrayList<>(batchSize);
+                    DedupState[] state = new DedupState[1];
+                    StageTimes times = new StageTimes();
+
+                    for (int i = 0; i < filePaths.size(); i++) {
+                        String filePath = filePaths.get(i);
+                        JobResult result = new JobResult(toolType, esIndex);
+                        results.add(result);
+                        JobCheckpoint resumedFrom = null;
+                        if (checkpointed && resumes.get(i) != null) {
+                            resumedFrom = resumes.get(i).checkpoint();
+                            result.restore(resumes.get(i).changes());
+                        }
+                        JobCheckpointer checkpointer = checkpointed
+                            ? new JobCheckpointer(checkpoints, jobIds.get(i), filePath, esIndex, result, resumedFrom)
+                            : null;
+                        long resumeAlerts = resumedFrom != null ? resumedFrom.getAlertsDone() : 0;
+                        long resumeOffset = resumedFrom != null ? resumedFrom.getByteOffset() : -1;
+                        long fileStart = System.nanoTime();
+                        long handledBefore = times.handlerNanos;
+                        int alerts = alertMappingPool.isEnabled()
+                            ? mapInParallel(filePath, resumeAlerts, resumeOffset, batchSize, dedupFetch, state,
+                                bulkSession, result, checkpointer, times)
+                            : alertStreamReader.forEachAlert(filePath, getAlertType(), resumeAlerts, resumeOffset,
+                                (alert, raw, endOffset) -> {
+                                long handlerStart = System.nanoTime();
+                                PendingAlert pending = readAlert(alert, raw, endOffset, dedupFetch, state);
+                                if (!pending.heldBack) {
+                                    pending.map();
+                                }
+                                batch.add(pending);
+                                times.mapNanos += System.nanoTime() - handlerStart;
+                                if (batch.size() >= batchSize) {
+                                    dedupBatch(batch, dedupFetch, state, bulkSession, result, checkpointer, times);
+                                    batch.clear();
+                                }
+                                times.handlerNanos += System.nanoTime() - handlerStart;
+                            });
+                        // Whatever the handler did not account for was spent reading and parsing the file.
+                        times.readNanos += System.nanoTime() - fileStart - (times.handlerNanos - handledBefore);
+                        metrics.recordAlertsParsed(toolType, esIndex, alerts);
+
+                        dedupBatch(batch, dedupFetch, state, bulkSession, result, checkpointer, times);
+                        batch.clear();
+                    }
+                    dedupState = state[0] != null ? state[0] : dedupFetch.join(timeouts.getDedupFetch());
+                    metrics.recordStage("read", toolType, times.readNanos);
+                    metrics.recordStage("map", toolType, times.mapNanos);
+                    metrics.recordStage("dedup", toolType, times.dedupNanos);
+
+                    long flushStart = System.nanoTime();
+                    bulkResult = scope.fork("bulk-flush", bulkSession::finish).join(timeouts.getBulkFlush());
+                    metrics.recordStage("bulk-flush", toolType, System.nanoTime() - flushStart);
+                }
+
+                if (bulkResult.hasFailures()) {
+                    for (BulkResult.Failure failure : bulkResult.getFailures()) {
+                        System.err.println("[" + getClass().getSimpleName() + "] Failed to write finding "
+                            + failure.id() + " to index=" + esIndex + ": " + failure.reason());
+                    }
+                } else if (bulkResult.getAlreadyExisting().isEmpty()) {
+                    // A finding another writer created first is stored as they wrote it, not as held here.
+                    inSyncWithES = true;
+                }
+                for (JobResult result : results) {
+                    result.applyWriteOutcome(bulkResult);
+                    metrics.recordFindings(result);
+                }
+
+                // Make the findings searchable per the refresh policy before the job reports them.
+                long refreshStart = System.nanoTime();
+                try {
+                    indexRefreshService.makeVisible(esIndex, bulkResult, timeouts.getRefresh());
+                    metrics.recordStage("refresh", toolType, System.nanoTime() - refreshStart);
+                } finally {
+                    if (bulkResult.getSucceeded() > 0) {
+                        deDupService.recordWrites(toolType, esIndex);
+                    }
+                }
+            } finally {
+                if (dedupState != null) {
+                    deDupService.releaseDedupState(dedupState, inSyncWithES);
+                }
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * The checkpoint each file's earlier attempt left, with the findings recorded up to it,
+     * or null per file to start it over. Before resuming, the index is prepared so the
+     * de-dup fetch sees every write up to the checkpoints.
+     */
+    private List<Resume> findResumes(List<String> jobIds, List<String> filePaths, String esIndex) {
+        List<Resume> resumes = new ArrayList<>(filePaths.size());
+        boolean resuming = false;
+        for (int i = 0; i < filePaths.size(); i++) {
+            String jobId = jobIds.get(i);
+            Resume resume = null;
+            try {
+                JobCheckpoint checkpoint = checkpoints.find(jobId, filePaths.get(i));
+                if (checkpoint != null) {
+                    resume = new Resume(checkpoint, checkpoints.loadChanges(jobId));
+                    System.out.println("[" + getClass().getSimpleName() + "] Resuming job " + jobId + " after "
+                        + checkpoint.getAlertsDone() + " alerts");
+                    resuming = true;
+                }
+            } catch (Exception e) {
+                System.err.println("[" + getClass().getSimpleName() + "] Could not load checkpoint of job " + jobId
+                    + "; starting over: " + e.getMessage());
+            }
+            resumes.add(resume);
+        }
+        if (resuming) {
+            try {
+                deDupService.prepareForResume(getToolType(), esIndex);
+            } catch (Exception e) {
+                System.err.println("[" + getClass().getSimpleName() + "] Could not prepare " + esIndex
+                    + " for resuming; starting over: " + e.getMessage());
+                Collections.fill(resumes, null);
+            }
+        }
+        return resumes;
+    }
+
+    private record Resume(JobCheckpoint checkpoint, List<JobResult.FindingChange> changes) {
+    }
+
+    /**
+     * Read the file on this thread and map its alerts on the {@link AlertMappingPool}, one
+     * chunk of chunkSize alerts at a time, while reading goes on. Mapped chunks are de-duped
+     * here strictly in file order, so repeats inside the file resolve exactly as in the
+     * sequential loop and the IDs are recorded in input order. At most
+     * parser.processing.parallel.max-chunks-in-flight chunks are pending at once.
+     *
+     * @return the number of alerts read
+     */
+    private int mapInParallel(String filePath, long resumeAlerts, long resumeOffset, int chunkSize,
+                              JobScope.Subtask<DedupState> dedupFetch, DedupState[] state, BulkSession bulkSession,
+                              JobResult result, JobCheckpointer checkpointer, StageTimes times) throws Exception {
+        ArrayDeque<MapChunk> inFlight = new ArrayDeque<>();
+        LongAdder mapNanos = new LongAdder();
+        List<PendingAlert> chunk = new ArrayList<>(chunkSize);
+        try {
+            int count = alertStreamReader.forEachAlert(filePath, getAlertType(), resumeAlerts, resumeOffset,
+                    (alert, raw, endOffset) -> {
+                long handlerStart = System.nanoTime();
+                chunk.add(readAlert(alert, raw, endOffset, dedupFetch, state));
+                if (chunk.size() >= chunkSize) {
+                    inFlight.add(alertMappingPool.submit(new MapChunk(new ArrayList<>(chunk), mapNanos)));
+                    chunk.clear();
+                    // De-dup whatever is already mapped, and wait for the oldest chunk when too many are pending.
+                    while (!inFlight.isEmpty()
+                            && (inFlight.peek().isDone() || inFlight.size() >= alertMappingPool.getMaxChunksInFlight())) {
+                        dedupChunk(inFlight.poll(), dedupFetch, state, bulkSession, result, checkpointer, times);
+                    }
+                }
+                times.handlerNanos += System.nanoTime() - handlerStart;
+            });
+            if (!chunk.isEmpty()) {
+                inFlight.add(alertMappingPool.submit(new MapChunk(chunk, mapNanos)));
+            }
+            while (!inFlight.isEmpty()) {
+                dedupChunk(inFlight.poll(), dedupFetch, state, bulkSession, result, checkpointer, times);
+            }
+            return count;
+        } finally {
+            for (MapChunk pending : inFlight) {
+                pending.cancel(false);
+            }
+            times.mapNanos += mapNanos.sum();
+        }
+    }
+
+    private void dedupChunk(MapChunk chunk, JobScope.Subtask<DedupState> dedupFetch, DedupState[] state,
+                            BulkSession bulkSession, JobResult result, JobCheckpointer checkpointer,
+                            StageTimes times) throws Exception {
+        chunk.join();
+        dedupBatch(chunk.alerts, dedupFetch, state, bulkSession, result, checkpointer, times);
+    }
+
+    /**
+     * Wrap an alert as it is read. With parser.dedup.skip-unchanged-alerts its raw JSON is
+     * digested, and it is held back from mapping when an existing finding was last seen as
+     * exactly this alert. That takes a complete de-dup state, so it starts once the state
+     * has been fetched.
+     */
+    private PendingAlert readAlert(A alert, RawJson raw, long endOffset, JobScope.Subtask<DedupState> dedupFetch,
+                                   DedupState[] state) throws Exception {
+        if (!dedupProperties.isSkipUnchangedAlerts()) {
+            return new PendingAlert(alert, raw, endOffset, null, false);
+        }
+        Fingerprint digest = deDupService.computeAlertDigest(raw);
+        if (state[0] == null && dedupFetch.isDone()) {
+            state[0] = dedupFetch.join(timeouts.getDedupFetch());
+        }
+        boolean heldBack = state[0] != null && state[0].isComplete() && state[0].findByAlertDigest(digest) != null;
+        return new PendingAlert(alert, raw, endOffset, digest, heldBack);
+    }
+
+    /**
+     * De-dup one batch against the job's state, waiting for the state to be fetched on the
+     * first batch, then let the checkpointer (if any) account for it. Fails the job if it
+     * was cancelled meanwhile.
+     */
+    private void dedupBatch(List<PendingAlert> batch, JobScope.Subtask<DedupState> dedupFetch, DedupState[] state,
+                            BulkSession bulkSession, JobResult result, JobCheckpointer checkpointer,
+                            StageTimes times) throws Exception {
+        if (state[0] == null) {
+            state[0] = dedupFetch.join(timeouts.getDedupFetch());
+        }
+        long dedupStart = System.nanoTime();
+        processBatch(batch, state[0], bulkSession, result);
+        times.dedupNanos += System.nanoTime() - dedupStart;
+        if (checkpointer != null && !batch.isEmpty()) {
+            checkpointer.afterBatch(batch.size(), batch.get(batch.size() - 1).endOffset, bulkSession);
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException("Job for " + getToolType() + " on " + result.getEsIndex() + " was cancelled");
+        }
+    }
+
+    /**
+     * Maps and fingerprints the alerts of one chunk that were not held back, splitting it
+     * in halves down to {@link #MAP_SPLIT_THRESHOLD} alerts so idle workers can steal part
+     * of a chunk.
+     */
+    private final class MapChunk extends RecursiveAction {
+
+        private final List<PendingAlert> alerts;
+        private final LongAdder mapNanos;
+        private final int from;
+        private final int to;
+
+        MapChunk(List<PendingAlert> alerts, LongAdder mapNanos) {
+            this(alerts, mapNanos, 0, alerts.size());
+        }
+
+        private MapChunk(List<PendingAlert> alerts, LongAdder mapNanos, int from, int to) {
+            this.alerts = alerts;
+            this.mapNanos = mapNanos;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > MAP_SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new MapChunk(alerts, mapNanos, from, mid), new MapChunk(alerts, mapNanos, mid, to));
+                return;
+            }
+            long start = System.nanoTime();
+            for (int i = from; i < to; i++) {
+                PendingAlert pending = alerts.get(i);
+                if (!pending.heldBack) {
+                    pending.map();
+                }
+            }
+            mapNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * One alert from reading to de-dup. finding and fingerprint are set once it is mapped;
+     * a held-back alert is only mapped if its finding changed before it is de-duped.
+     */
+    private final class PendingAlert {
+
+        private final A alert;
+        private final RawJson raw;
+        private final long endOffset;
+        private final Fingerprint digest;
+        private final boolean heldBack;
+        private Finding finding;
+        private Fingerprint fingerprint;
+
+        PendingAlert(A alert, RawJson raw, long endOffset, Fingerprint digest, boolean heldBack) {
+            this.alert = alert;
+            this.raw = raw;
+            this.endOffset = endOffset;
+            this.digest = digest;
+            this.heldBack = heldBack;
+        }
+
+        void map() {
+            finding = mapAlertToFinding(alert);
+            finding.setToolAdditionalProperties(raw);
+            if (digest != null) {
+                finding.setAlertDigest(digest.toHex());
+            }
+            fingerprint = deDupService.computeFingerprint(finding);
+        }
+    }
+
+    /**
+     * De-dup one batch of alerts in file order: save new findings, update changed ones
+     * and record every finding's ID. A held-back alert whose digest still matches its
+     * finding is recorded as unchanged without being mapped or compared.
+     */
+    private void processBatch(List<PendingAlert> batch, DedupState dedupState,
+                              BulkSession bulkSession, JobResult result) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (!dedupState.isComplete()) {
+            // Alerts are only held back against a complete state, so these are all mapped.
+            List<Finding> findings = new ArrayList<>(batch.size());
+            List<Fingerprint> fingerprints = new ArrayList<>(batch.size());
+            for (PendingAlert pending : batch) {
+                findings.add(pending.finding);
+                fingerprints.add(pending.fingerprint);
+            }
+            deDupService.resolve(dedupState, findings, fingerprints);
+        }
+
+        for (PendingAlert pending : batch) {
+            if (pending.finding == null) {
+                Fingerprint unchanged = dedupState.findByAlertDigest(pending.digest);
+                if (unchanged != null) {
+                    result.recordUnchanged(dedupState.get(unchanged).getId());
+                    continue;
+                }
+                // An earlier alert of this job changed that finding; compare as usual.
+                pending.map();
+            }
+            Finding newFinding = pending.finding;
+            Fingerprint fingerprint = pending.fingerprint;
+            Finding existing = dedupState.get(fingerprint);
+
+            if (existing == null) {
+                // New finding: save it and add its ID.
+                String now = Instant.now().toString();
+                newFinding.setId(deDupService.newDocumentId(getToolType(), fingerprint));
+                newFinding.setCreatedAt(now);
+                newFinding.setUpdatedAt(now);
+                bulkSession.create(newFinding);
+                dedupState.put(fingerprint, newFinding);
+                result.recordNew(newFinding.getId());
+            } else if (deDupService.isUpdated(newFinding, existing)) {
+                newFinding.setCreatedAt(existing.getCreatedAt());
+                newFinding.setUpdatedAt(Instant.now().toString());
+                deDupService.updateInES(newFinding, existing, dedupState.storedVersion(existing.getId()), bulkSession);
+                dedupState.put(fingerprint, newFinding);
+                result.recordUpdated(existing.getId());
+            } else {
+                if (pending.digest != null && !pending.digest.hasHex(existing.getAlertDigest())) {
+                    // Same finding from other alert JSON (or stored before digests): keep this
+                    // alert's digest so the next scan of it is skipped.
+                    deDupService.updateAlertDigest(existing, newFinding.getAlertDigest(), bulkSession);
+                    dedupState.put(fingerprint, existing);
+                }
+                // No update; add the existing finding's ID.
+                result.recordUnchanged(existing.getId());
+            }
+        }
+    }
+
+    /**
+     * Time spent per stage over the files of one job, recorded once all files are read.
+     */
+    private static final class StageTimes {
+        long readNanos;
+        long mapNanos;
+        long dedupNanos;
+        long handlerNanos;
+    }
+
+    /**
+     * The tool whose findings this processor handles.
+     */
+    protected abstract ToolTypes getToolType();
+
+    /**
+     * The typed model the tool's alerts are bound to.
+     */
+    protected abstract Class<A> getAlertType();
+
+    /**
+     * Map a single GitHub alert to our internal Finding model.
+     * The id is left unset; it is assigned once de-dup knows whether the finding is new,
+     * and toolAdditionalProperties is set to the raw alert JSON by the caller.
+     */
+    protected abstract Finding mapAlertToFinding(A alert);
+}
@@ -0,0 +1,116 @@
+package com.capstone.parser.service.processor;
+
+import com.capstone.parser.config.InputProperties;
+import com.github.luben.zstd.ZstdInputStream;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Opens an alert file for streaming. gzip and zstd files are decompressed on the fly;
+ * the format is taken from the extension (.gz, .gzip, .zst, .zstd) or else from the
+ * file's magic bytes, so a compressed file with a plain .json name works too. Files of
+ * at least parser.input.mmap-threshold bytes are read through a memory mapping.
+ */
+@Component
+public class AlertFileOpener {
+
+    private static final int GZIP_MAGIC = 0x1f8b;
+    private static final int ZSTD_MAGIC = 0x28b52ffd;
+
+    private final InputProperties config;
+
+    private enum Compression { NONE, GZIP, ZSTD }
+
+    public AlertFileOpener(InputProperties config) {
+        this.config = config;
+    }
+
+    /**
+     * The decompressed content of the file. The caller closes the stream.
+     */
+    public InputStream open(String filePath) throws IOException {
+        Path path = Path.of(filePath);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            Compression compression = detect(path, channel);
+            InputStream raw = channel.size() >= config.getMmapThreshold()
+                ? new MappedFileInputStream(channel, 0)
+                : Channels.newInputStream(channel);
+            switch (compression) {
+                case GZIP:
+                    return new GZIPInputStream(raw, config.getGzipBufferSize());
+                case ZSTD:
+                    return new BufferedInputStream(new ZstdInputStream(raw), ZstdInputStream.recommendedDOutSize());
+                default:
+                    return raw;
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Whether the file is stored uncompressed, so it can be read from a byte offset.
+     */
+    public boolean isSeekable(String filePath) throws IOException {
+        Path path = Path.of(filePath);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return detect(path, channel) == Compression.NONE;
+        }
+    }
+
+    /**
+     * The content of an uncompressed file from the given byte offset on. The caller closes the stream.
+     */
+    public InputStream openAt(String filePath, long offset) throws IOException {
+        Path path = Path.of(filePath);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (detect(path, channel) != Compression.NONE) {
+                throw new IOException(filePath + " is compressed and cannot be read from an offset");
+            }
+            if (channel.size() >= config.getMmapThreshold()) {
+                return new MappedFileInputStream(channel, offset);
+            }
+            channel.position(offset);
+            return Channels.newInputStream(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static Compression detect(Path path, FileChannel channel) throws IOException {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".gz") || name.endsWith(".gzip")) {
+            return Compression.GZIP;
+        }
+        if (name.endsWith(".zst") || name.endsWith(".zstd")) {
+            return Compression.ZSTD;
+        }
+
+        ByteBuffer head = ByteBuffer.allocate(4);
+        while (head.hasRemaining() && channel.read(head, head.position()) > 0) {
+            // read the first bytes without moving the channel position
+        }
+        head.flip();
+        if (head.remaining() >= 2 && (head.getShort(0) & 0xffff) == GZIP_MAGIC) {
+            return Compression.GZIP;
+        }
+        if (head.remaining() == 4 && head.getInt(0) == ZSTD_MAGIC) {
+            return Compression.ZSTD;
+        }
+        return Compression.NONE;
+    }
+}
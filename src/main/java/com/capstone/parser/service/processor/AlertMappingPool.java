@@ -0,0 +1,61 @@
+package com.capstone.parser.service.processor;
+
+import com.capstone.parser.config.ProcessingProperties;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * The work-stealing pool alert chunks are mapped on when parser.processing.parallel
+ * is enabled. It is shared by all jobs, so concurrent jobs of other tenants compete
+ * for the same workers instead of each adding a pool of their own.
+ */
+@Component
+public class AlertMappingPool {
+
+    private final ForkJoinPool pool;
+    private final int maxChunksInFlight;
+
+    public AlertMappingPool(ProcessingProperties processingProperties) {
+        ProcessingProperties.Parallel config = processingProperties.getParallel();
+        int parallelism = config.getParallelism() > 0
+            ? config.getParallelism()
+            : Runtime.getRuntime().availableProcessors();
+        this.maxChunksInFlight = config.getMaxChunksInFlight() > 0 ? config.getMaxChunksInFlight() : 2 * parallelism;
+        this.pool = config.isEnabled()
+            ? new ForkJoinPool(parallelism, AlertMappingPool::newWorker, null, false)
+            : null;
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        worker.setName("alert-mapper-" + worker.getPoolIndex());
+        return worker;
+    }
+
+    public boolean isEnabled() {
+        return pool != null;
+    }
+
+    public int getMaxChunksInFlight() {
+        return maxChunksInFlight;
+    }
+
+    /**
+     * Start the task on the pool; the caller joins it.
+     */
+    public <T extends ForkJoinTask<?>> T submit(T task) {
+        pool.execute(task);
+        return task;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.capstone.parser.service.processor;
+
+import com.capstone.parser.model.RawJson;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streams the top-level JSON array of a scanner output file one alert at a time,
+ * so only the alert currently being mapped is held in memory (instead of the whole
+ * List<Map<String, Object>> tree).
+ *
+ * Each alert is bound to its typed model (only the fields that are mapped), and also
+ * handed over as compact JSON text, kept raw in the finding's toolAdditionalProperties.
+ * For an uncompressed file the alert is bound straight from the parser and its text is
+ * sliced from the file bytes the parser read: out of the memory mapping for a mapped
+ * file, otherwise from a copy of the bytes read since the alert started. A decompressed
+ * stream has no byte offsets into the file, so there the alert is tokenized once into a
+ * copy that is both bound and re-encoded.
+ *
+ * Files are opened through {@link AlertFileOpener}, so gzip/zstd output and large
+ * memory-mapped files are read the same way.
+ */
+@Component
+public class AlertStreamReader {
+
+    private static final byte[] RESUME_PREFIX = "[null".getBytes(StandardCharsets.US_ASCII);
+
+    private final ObjectMapper objectMapper;
+    private final AlertFileOpener fileOpener;
+    private final Map<Class<?>, ObjectReader> alertReaders = new ConcurrentHashMap<>();
+
+    public AlertStreamReader(ObjectMapper objectMapper, AlertFileOpener fileOpener) {
+        this.objectMapper = objectMapper;
+        this.fileOpener = fileOpener;
+    }
+
+    /**
+     * Reads the alerts from the given file and hands each one to the handler, in file order.
+     * Non-object array entries (e.g. nulls) are skipped.
+     *
+     * @return the number of alerts handed to the handler
+     */
+    public <A> int forEachAlert(String filePath, Class<A> alertType, AlertHandler<A> handler) throws Exception {
+        return forEachAlert(filePath, alertType, 0, -1, handler);
+    }
+
+    /**
+     * Same as {@link #forEachAlert(String, Class, AlertHandler)}, but resumes after the
+     * first resumeAlerts alerts of the file. If resumeOffset is the byte offset at which
+     * those alerts end (as handed to the handler) and the file is uncompressed, reading
+     * starts right there; otherwise the alerts are skipped over without being bound.
+     *
+     * @return the number of alerts handed to the handler
+     */
+    public <A> int forEachAlert(String filePath, Class<A> alertType, long resumeAlerts, long resumeOffset,
+                                AlertHandler<A> handler) throws Exception {
+        ObjectReader alertReader = alertReaders.computeIfAbsent(alertType, objectMapper::readerFor);
+        boolean seekable = fileOpener.isSeekable(filePath);
+        long offsetBase = 0;
+        long toSkip = resumeAlerts;
+        InputStream file;
+        InputStream in;
+        if (seekable && resumeAlerts > 0 && resumeOffset >= 0) {
+            // Continue the array after the last alert read: "[null" stands in for everything before it.
+            file = fileOpener.openAt(filePath, resumeOffset);
+            in = new SequenceInputStream(new ByteArrayInputStream(RESUME_PREFIX), file);
+            offsetBase = resumeOffset - RESUME_PREFIX.length;
+            toSkip = 0;
+        } else {
+            file = fileOpener.open(filePath);
+            in = file;
+        }
+
+        // Parser offsets plus offsetBase are file offsets.
+        MappedFileInputStream mapped = file instanceof MappedFileInputStream m ? m : null;
+        SliceableInputStream copied = seekable && mapped == null ? new SliceableInputStream(in) : null;
+        StringWriter rawOut = new StringWriter();
+        try (JsonParser parser = objectMapper.createParser(copied != null ? copied : in);
+             JsonGenerator rawGen = objectMapper.getFactory().createGenerator(rawOut)) {
+            rawGen.setRootValueSeparator(null);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of alerts in " + filePath);
+            }
+
+            int count = 0;
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token == null) {
+                    throw new IOException("Unexpected end of alert file " + filePath);
+                }
+                long startOffset = -1;
+                if (seekable) {
+                    startOffset = parser.currentTokenLocation().getByteOffset();
+                }
+                if (copied != null) {
+                    copied.discardBefore(startOffset);
+                }
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                if (toSkip > 0) {
+                    parser.skipChildren();
+                    toSkip--;
+                    continue;
+                }
+                A alert;
+                RawJson raw;
+                long endOffset;
+                if (seekable) {
+                    alert = alertReader.readValue(parser);
+                    long sourceEnd = parser.currentLocation().getByteOffset();
+                    raw = new RawJson(mapped != null
+                        ? mapped.sliceJson(offsetBase + startOffset, offsetBase + sourceEnd)
+                        : copied.sliceJson(startOffset, sourceEnd));
+                    endOffset = offsetBase + sourceEnd;
+                } else {
+                    TokenBuffer tokens = TokenBuffer.asCopyOfValue(parser);
+                    alert = alertReader.readValue(tokens.asParser());
+                    tokens.serialize(rawGen);
+                    rawGen.flush();
+                    raw = new RawJson(rawOut.toString());
+                    rawOut.getBuffer().setLength(0);
+                    endOffset = -1;
+                }
+                handler.handle(alert, raw, endOffset);
+                count++;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Callback invoked once per alert read from the file.
+     */
+    @FunctionalInterface
+    public interface AlertHandler<A> {
+        /**
+         * @param endOffset the byte offset in the file right after the alert, or -1 if the
+         *                  file is compressed
+         */
+        void handle(A alert, RawJson raw, long endOffset) throws Exception;
+    }
+}
@@ -0,0 +1,71 @@
+package com.capstone.parser.service.processor;
+
+import com.capstone.parser.model.JobCheckpoint;
+import com.capstone.parser.service.BulkSession;
+import com.capstone.parser.service.JobCheckpointService;
+
+import java.util.List;
+
+/**
+ * Writes the checkpoints of one job's file as its batches are de-duped. A checkpoint is
+ * only written once every bulk write of the job so far went through, so a resumed job
+ * never skips an alert whose finding did not reach ES. If writes fail or the store is
+ * unreachable, the job carries on without further checkpoints.
+ */
+final class JobCheckpointer {
+
+    private final JobCheckpointService checkpoints;
+    private final String eventId;
+    private final String filePath;
+    private final String esIndex;
+    private final JobResult result;
+
+    private long alertsDone;
+    private long byteOffset;
+    private long alertsAtLastCheckpoint;
+    private int changesSaved;
+    private boolean stopped;
+
+    JobCheckpointer(JobCheckpointService checkpoints, String eventId, String filePath, String esIndex,
+                    JobResult result, JobCheckpoint resumedFrom) {
+        this.checkpoints = checkpoints;
+        this.eventId = eventId;
+        this.filePath = filePath;
+        this.esIndex = esIndex;
+        this.result = result;
+        if (resumedFrom != null) {
+            this.alertsDone = resumedFrom.getAlertsDone();
+            this.byteOffset = resumedFrom.getByteOffset();
+            this.alertsAtLastCheckpoint = alertsDone;
+            this.changesSaved = result.getChanges().size();
+        }
+    }
+
+    /**
+     * Account for a de-duped batch of alerts, the last of which ends at endOffset in the
+     * file (-1 if the file cannot be read from an offset), and checkpoint if it is time.
+     */
+    void afterBatch(int alerts, long endOffset, BulkSession bulkSession) {
+        alertsDone += alerts;
+        byteOffset = endOffset;
+        if (stopped || alertsDone - alertsAtLastCheckpoint < checkpoints.getEveryAlerts()) {
+            return;
+        }
+        if (!bulkSession.flushNow()) {
+            stopped = true;
+            System.err.println("[JobCheckpointer] Writes of job " + eventId + " failed; no further checkpoints");
+            return;
+        }
+        try {
+            List<JobResult.FindingChange> changes = result.getChanges();
+            checkpoints.save(eventId, filePath, esIndex, alertsDone, byteOffset,
+                changes.subList(changesSaved, changes.size()));
+            changesSaved = changes.size();
+            alertsAtLastCheckpoint = alertsDone;
+        } catch (Exception e) {
+            stopped = true;
+            System.err.println("[JobCheckpointer] Checkpoint of job " + eventId + " failed; no further checkpoints: "
+                + e.getMessage());
+        }
+    }
+}
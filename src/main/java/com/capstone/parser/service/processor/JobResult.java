@@ -0,0 +1,149 @@
+package com.capstone.parser.service.processor;
+
+import com.capstone.parser.enums.FindingChangeType;
+import com.capstone.parser.enums.ToolTypes;
+import com.capstone.parser.service.BulkResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * What a parse job produced: every processed finding ID in file order with whether it
+ * was new, updated or unchanged, and the writes ES rejected. Returned by
+ * {@link ScanJobProcessorService#processJob} to the caller that publishes the runbook job.
+ */
+public class JobResult {
+
+    private final ToolTypes toolType;
+    private final String esIndex;
+    private final List<FindingChange> changes = new ArrayList<>();
+    private int newCount;
+    private int updatedCount;
+    private int unchangedCount;
+    private List<BulkResult.Failure> writeFailures = List.of();
+
+    public JobResult(ToolTypes toolType, String esIndex) {
+        this.toolType = toolType;
+        this.esIndex = esIndex;
+    }
+
+    /**
+     * The result of a job that is answered from a recorded earlier outcome instead of being run.
+     */
+    public static JobResult replayed(ToolTypes toolType, String esIndex, List<FindingChange> changes) {
+        JobResult result = new JobResult(toolType, esIndex);
+        result.restore(changes);
+        return result;
+    }
+
+    void recordNew(String findingId) {
+        changes.add(new FindingChange(findingId, FindingChangeType.NEW));
+        newCount++;
+    }
+
+    void recordUpdated(String findingId) {
+        changes.add(new FindingChange(findingId, FindingChangeType.UPDATED));
+        updatedCount++;
+    }
+
+    void recordUnchanged(String findingId) {
+        changes.add(new FindingChange(findingId, FindingChangeType.UNCHANGED));
+        unchangedCount++;
+    }
+
+    /**
+     * Put back the findings an earlier attempt of the job recorded before its last checkpoint.
+     */
+    void restore(List<FindingChange> restored) {
+        for (FindingChange change : restored) {
+            changes.add(change);
+            if (change.type() == FindingChangeType.NEW) {
+                newCount++;
+            } else if (change.type() == FindingChangeType.UPDATED) {
+                updatedCount++;
+            } else {
+                unchangedCount++;
+            }
+        }
+    }
+
+    /**
+     * Findings ES rejected are not reported downstream, and a new finding that another
+     * writer had already created under the same id is reported as unchanged.
+     */
+    void applyWriteOutcome(BulkResult bulkResult) {
+        writeFailures = bulkResult.getFailures();
+        Set<String> alreadyExisting = bulkResult.getAlreadyExisting();
+        if (!alreadyExisting.isEmpty()) {
+            changes.replaceAll(change -> {
+                if (change.type() != FindingChangeType.NEW || !alreadyExisting.contains(change.findingId())) {
+                    return change;
+                }
+                newCount--;
+                unchangedCount++;
+                return new FindingChange(change.findingId(), FindingChangeType.UNCHANGED);
+            });
+        }
+        if (bulkResult.hasFailures()) {
+            Set<String> failedIds = bulkResult.failedIds();
+            changes.removeIf(change -> {
+                // An unchanged finding whose alert digest failed to store is still unchanged.
+                if (change.type() == FindingChangeType.UNCHANGED || !failedIds.contains(change.findingId())) {
+                    return false;
+                }
+                if (change.type() == FindingChangeType.NEW) {
+                    newCount--;
+                } else if (change.type() == FindingChangeType.UPDATED) {
+                    updatedCount--;
+                }
+                return true;
+            });
+        }
+    }
+
+    public ToolTypes getToolType() {
+        return toolType;
+    }
+
+    public String getEsIndex() {
+        return esIndex;
+    }
+
+    /**
+     * Every processed finding in file order, with its category.
+     */
+    public List<FindingChange> getChanges() {
+        return changes;
+    }
+
+    public List<String> getFindingIds() {
+        List<String> ids = new ArrayList<>(changes.size());
+        for (FindingChange change : changes) {
+            ids.add(change.findingId());
+        }
+        return ids;
+    }
+
+    public int getNewCount() {
+        return newCount;
+    }
+
+    public int getUpdatedCount() {
+        return updatedCount;
+    }
+
+    public int getUnchangedCount() {
+        return unchangedCount;
+    }
+
+    public List<BulkResult.Failure> getWriteFailures() {
+        return writeFailures;
+    }
+
+    /**
+     * One processed finding and what the job did with it.
+     */
+    public record FindingChange(String findingId, FindingChangeType type) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.capstone.parser.service.processor;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads a file front to back (from a start offset) through read-only memory mappings of
+ * up to 1GB each, so a file of any size is streamed without read() calls. The text of a
+ * value the parser has read is sliced straight from the mapping, so the file's bytes
+ * are not also kept in a heap buffer.
+ * Closing the stream closes the channel.
+ */
+class MappedFileInputStream extends InputStream {
+
+    private static final long WINDOW_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+    private final long size;
+    private final long startOffset;
+    private final long windowSize;
+    private long windowStart;
+    private MappedByteBuffer window;
+
+    MappedFileInputStream(FileChannel channel, long startOffset) throws IOException {
+        this(channel, startOffset, WINDOW_SIZE);
+    }
+
+    MappedFileInputStream(FileChannel channel, long startOffset, long windowSize) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        this.startOffset = startOffset;
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!nextWindowIfExhausted()) {
+            return -1;
+        }
+        return window.get() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!nextWindowIfExhausted()) {
+            return -1;
+        }
+        int n = Math.min(len, window.remaining());
+        window.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return window == null ? 0 : window.remaining();
+    }
+
+    private boolean nextWindowIfExhausted() throws IOException {
+        if (window != null && window.hasRemaining()) {
+            return true;
+        }
+        long next = window == null ? startOffset : windowStart + window.capacity();
+        if (next >= size) {
+            return false;
+        }
+        windowStart = next;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, next, Math.min(windowSize, size - next));
+        return true;
+    }
+
+    /**
+     * The JSON text between the two file offsets, without the whitespace between its
+     * tokens, copied once out of the current mapping. A value that does not lie within
+     * the current window (it started in the one before) is read from the channel.
+     */
+    String sliceJson(long from, long to) throws IOException {
+        byte[] bytes = new byte[Math.toIntExact(to - from)];
+        if (window != null && from >= windowStart && to <= windowStart + window.capacity()) {
+            window.get((int) (from - windowStart), bytes);
+        } else {
+            ByteBuffer dst = ByteBuffer.wrap(bytes);
+            while (dst.hasRemaining()) {
+                if (channel.read(dst, from + dst.position()) < 0) {
+                    throw new EOFException("Bytes " + from + ".." + to + " are past the end of the file");
+                }
+            }
+        }
+        return SliceableInputStream.compactJson(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
@@ -0,0 +1,92 @@
+package com.capstone.parser.service.processor;
+
+import com.capstone.parser.config.DedupProperties;
+import com.capstone.parser.config.ProcessingProperties;
+import com.capstone.parser.service.BulkIndexService;
+import com.capstone.parser.service.DeDupService;
+import com.capstone.parser.service.ElasticSearchService;
+import com.capstone.parser.service.IndexRefreshService;
+import com.capstone.parser.service.JobCheckpointService;
+import com.capstone.parser.service.ParserMetrics;
+import org.springframework.stereotype.Component;
+
+/**
+ * The collaborators every {@link AbstractScanJobProcessorService} needs, injected once
+ * so the tool-specific processors only pass this along.
+ */
+@Component
+public class ProcessorDependencies {
+
+    private final ElasticSearchService elasticSearchService;
+    private final IndexRefreshService indexRefreshService;
+    private final DeDupService deDupService;
+    private final AlertStreamReader alertStreamReader;
+    private final AlertMappingPool alertMappingPool;
+    private final BulkIndexService bulkIndexService;
+    private final DedupProperties dedupProperties;
+    private final JobCheckpointService checkpoints;
+    private final ProcessingProperties processingProperties;
+    private final ParserMetrics metrics;
+
+    public ProcessorDependencies(ElasticSearchService elasticSearchService,
+                                 IndexRefreshService indexRefreshService,
+                                 DeDupService deDupService,
+                                 AlertStreamReader alertStreamReader,
+                                 AlertMappingPool alertMappingPool,
+                                 BulkIndexService bulkIndexService,
+                                 DedupProperties dedupProperties,
+                                 JobCheckpointService checkpoints,
+                                 ProcessingProperties processingProperties,
+                                 ParserMetrics metrics) {
+        this.elasticSearchService = elasticSearchService;
+        this.indexRefreshService = indexRefreshService;
+        this.deDupService = deDupService;
+        this.alertStreamReader = alertStreamReader;
+        this.alertMappingPool = alertMappingPool;
+        this.bulkIndexService = bulkIndexService;
+        this.dedupProperties = dedupProperties;
+        this.checkpoints = checkpoints;
+        this.processingProperties = processingProperties;
+        this.metrics = metrics;
+    }
+
+    public ElasticSearchService getElasticSearchService() {
+        return elasticSearchService;
+    }
+
+    public IndexRefreshService getIndexRefreshService() {
+        return indexRefreshService;
+    }
+
+    public DeDupService getDeDupService() {
+        return deDupService;
+    }
+
+    public AlertStreamReader getAlertStreamReader() {
+        return alertStreamReader;
+    }
+
+    public AlertMappingPool getAlertMappingPool() {
+        return alertMappingPool;
+    }
+
+    public BulkIndexService getBulkIndexService() {
+        return bulkIndexService;
+    }
+
+    public DedupProperties getDedupProperties() {
+        return dedupProperties;
+    }
+
+    public JobCheckpointService getCheckpoints() {
+        return checkpoints;
+    }
+
+    public ProcessingProperties getProcessingProperties() {
+        return processingProperties;
+    }
+
+    public ParserMetrics getMetrics() {
+        return metrics;
+    }
+}
@@ -1,9 +1,33 @@
 package com.capstone.parser.service.processor;
 
+import java.util.List;
+
 public interface ScanJobProcessorService {
     /**
      * Process the scan results from the provided JSON file path,
      * saving them into the given ES index.
+     *
+     * @return the IDs and outcome of every processed finding
+     */
+    JobResult processJob(String filePath, String esIndex) throws Exception;
+
+    /**
+     * Same as {@link #processJob(String, String)}, checkpointing progress under jobId (the
+     * parse event's ID) so that a retry of the job resumes after the last checkpoint.
+     */
+    JobResult processJob(String jobId, String filePath, String esIndex) throws Exception;
+
+    /**
+     * Process several scan result files for the same ES index in order, as one job.
+     *
+     * @return one result per file, in the same order as filePaths
+     */
+    List<JobResult> processJobs(List<String> filePaths, String esIndex) throws Exception;
+
+    /**
+     * Same as {@link #processJobs(List, String)}, checkpointing each file under its own job
+     * ID (its parse event's ID, in the same order as filePaths), so that a retry resumes
+     * every file after its last checkpoint.
      */
-    void processJob(String filePath, String esIndex) throws Exception;
+    List<JobResult> processJobs(List<String> jobIds, List<String> filePaths, String esIndex) throws Exception;
 }
@@ -0,0 +1,119 @@
+package com.capstone.parser.service.processor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Passes a stream through while keeping the bytes read since a given offset, so the
+ * source text of a value a parser has just consumed can be sliced out instead of being
+ * re-encoded from its tokens. Offsets count bytes from the start of this stream.
+ * Memory-mapped files need no copy; see {@link MappedFileInputStream#sliceJson}.
+ */
+class SliceableInputStream extends InputStream {
+
+    private final InputStream in;
+    private byte[] kept = new byte[16 * 1024];
+    private long keptStart;
+    private int keptLength;
+
+    SliceableInputStream(InputStream in) {
+        this.in = in;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = in.read();
+        if (b >= 0) {
+            ensureCapacity(1);
+            kept[keptLength++] = (byte) b;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = in.read(b, off, len);
+        if (n > 0) {
+            ensureCapacity(n);
+            System.arraycopy(b, off, kept, keptLength, n);
+            keptLength += n;
+        }
+        return n;
+    }
+
+    /**
+     * Forget the bytes before the offset; they can no longer be sliced.
+     */
+    void discardBefore(long offset) {
+        int drop = (int) Math.min(Math.max(offset - keptStart, 0), keptLength);
+        if (drop > 0) {
+            System.arraycopy(kept, drop, kept, 0, keptLength - drop);
+            keptLength -= drop;
+            keptStart += drop;
+        }
+    }
+
+    /**
+     * The JSON text between the two offsets, without the whitespace between its tokens
+     * (a pretty-printed value would otherwise span lines). Everything else is kept byte
+     * for byte; JSON strings cannot hold raw whitespace other than spaces, which are kept.
+     */
+    String sliceJson(long from, long to) {
+        int start = (int) (from - keptStart);
+        int end = (int) (to - keptStart);
+        if (from < keptStart || end > keptLength || start > end) {
+            throw new IllegalStateException("Bytes " + from + ".." + to + " of the stream are no longer kept");
+        }
+        return compactJson(kept, start, end);
+    }
+
+    /**
+     * The JSON text in bytes[start, end) without the whitespace between its tokens.
+     */
+    static String compactJson(byte[] bytes, int start, int end) {
+        byte[] compact = null;
+        int length = 0;
+        boolean inString = false;
+        boolean escaped = false;
+        for (int i = start; i < end; i++) {
+            byte c = bytes[i];
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                if (compact == null) {
+                    // First whitespace: copy what came before, then keep only non-whitespace.
+                    compact = Arrays.copyOfRange(bytes, start, end);
+                    length = i - start;
+                }
+                continue;
+            }
+            if (compact != null) {
+                compact[length++] = c;
+            }
+        }
+        return compact == null
+            ? new String(bytes, start, end - start, StandardCharsets.UTF_8)
+            : new String(compact, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void ensureCapacity(int more) {
+        if (keptLength + more > kept.length) {
+            kept = Arrays.copyOf(kept, Math.max(kept.length * 2, keptLength + more));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
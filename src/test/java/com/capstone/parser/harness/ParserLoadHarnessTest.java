@@ -0,0 +1,296 @@
+package com.capstone.parser.harness;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+
+import com.capstone.parser.dto.event.ParseRequestEvent;
+import com.capstone.parser.dto.event.payload.ParseRequestEventPayload;
+import com.capstone.parser.enums.ToolTypes;
+import com.capstone.parser.model.Tenant;
+import com.capstone.parser.repository.JobCheckpointRepository;
+import com.capstone.parser.repository.JobCheckpointSegmentRepository;
+import com.capstone.parser.repository.ProcessedJobRepository;
+import com.capstone.parser.repository.TenantRepository;
+import com.capstone.parser.support.FakeElasticsearchServer;
+import com.capstone.parser.support.SyntheticAlertGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.HttpHost;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.elasticsearch.client.RestClient;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * End-to-end load run: ParseRequestEvents go through an embedded Kafka broker into
+ * ParserJobConsumer, and in a second run into ParserBatchJobConsumer
+ * (parser.kafka.batch-listener=true). Findings are written to an in-process ES stand-in,
+ * and each run reports events/sec, alerts/sec and the p50/p99 time from publishing an
+ * event to receiving its acknowledgement. MySQL is replaced by an in-memory tenant lookup and
+ * mocked (empty) checkpoint and processed-job repositories, so every event is processed.
+ *
+ * Skipped unless -Dparser.harness=true. Sizes are set with system properties:
+ *   parser.harness.events           (default 200)
+ *   parser.harness.tenants          (default 8)
+ *   parser.harness.alerts-per-event (default 1000)
+ *   parser.harness.duplicate-ratio  (default 0.1)
+ *   parser.harness.timeout          (default PT10M)
+ *
+ *   mvn test -Dtest=ParserLoadHarnessTest -Dparser.harness=true -Dparser.harness.events=1000
+ */
+@EnabledIfSystemProperty(named = "parser.harness", matches = "true")
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.NONE,
+    properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.autoconfigure.exclude="
+            + "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration,"
+            + "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration,"
+            + "org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration",
+        "parser.elastic.provision-indices-on-startup=false"
+    })
+@TestPropertySource(properties = "parser.kafka.batch-listener=false")
+@EmbeddedKafka(partitions = 4, topics = {
+    ParserLoadHarnessTest.PARSE_TOPIC, ParserLoadHarnessTest.ACK_TOPIC, ParserLoadHarnessTest.RUNBOOK_TOPIC
+})
+class ParserLoadHarnessTest {
+
+    static final String PARSE_TOPIC = "jfc_parser";
+    static final String ACK_TOPIC = "job-acknowledgement-topic";
+    static final String RUNBOOK_TOPIC = "job_ingestion_topic";
+
+    private static final ToolTypes[] TOOLS = ToolTypes.values();
+    private static final FakeElasticsearchServer ELASTICSEARCH = startElasticsearch();
+
+    private final int events = Integer.getInteger("parser.harness.events", 200);
+    private final int tenants = Integer.getInteger("parser.harness.tenants", 8);
+    private final int alertsPerEvent = Integer.getInteger("parser.harness.alerts-per-event", 1000);
+    private final double duplicateRatio =
+        Double.parseDouble(System.getProperty("parser.harness.duplicate-ratio", "0.1"));
+    private final Duration timeout = Duration.parse(System.getProperty("parser.harness.timeout", "PT10M"));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @MockitoBean
+    private TenantRepository tenantRepository;
+
+    @MockitoBean
+    private JobCheckpointRepository checkpointRepository;
+
+    @MockitoBean
+    private JobCheckpointSegmentRepository checkpointSegmentRepository;
+
+    @MockitoBean
+    private ProcessedJobRepository processedJobRepository;
+
+    @Autowired
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @TestConfiguration
+    static class ElasticsearchStandIn {
+
+        @Bean
+        @Primary
+        ElasticsearchClient standInElasticsearchClient() {
+            RestClient restClient = RestClient.builder(HttpHost.create(ELASTICSEARCH.getUrl())).build();
+            return new ElasticsearchClient(new RestClientTransport(restClient, new JacksonJsonpMapper()));
+        }
+    }
+
+    private static FakeElasticsearchServer startElasticsearch() {
+        try {
+            return new FakeElasticsearchServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @AfterAll
+    static void stopElasticsearch() {
+        ELASTICSEARCH.close();
+    }
+
+    @Test
+    void measureThroughputAndAckLatency() throws Exception {
+        run("record", tenantRepository, kafkaTemplate, listenerRegistry, broker);
+    }
+
+    /**
+     * The same run against the batch listener, in its own application context (and broker).
+     */
+    @Nested
+    @TestPropertySource(properties = "parser.kafka.batch-listener=true")
+    class BatchListener {
+
+        @Autowired
+        private TenantRepository tenantRepository;
+
+        @Autowired
+        private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+        @Autowired
+        private KafkaListenerEndpointRegistry listenerRegistry;
+
+        @Autowired
+        private EmbeddedKafkaBroker broker;
+
+        @Test
+        void measureThroughputAndAckLatency() throws Exception {
+            run("batch", tenantRepository, kafkaTemplate, listenerRegistry, broker);
+        }
+    }
+
+    /**
+     * @param listener names the run in the report and in the tenant index names, so the
+     *                 runs do not share findings in the ES stand-in
+     */
+    private void run(String listener, TenantRepository tenantRepository, KafkaTemplate<String, byte[]> kafkaTemplate,
+                     KafkaListenerEndpointRegistry listenerRegistry, EmbeddedKafkaBroker broker) throws Exception {
+        Path workDir = Files.createTempDirectory("parser-harness");
+        Map<String, Tenant> tenantsById = new HashMap<>();
+        Map<String, Path> files = new HashMap<>();
+        for (int t = 0; t < tenants; t++) {
+            Tenant tenant = new Tenant();
+            tenant.setTenantId("T" + t);
+            tenant.setTenantName("Harness tenant " + t);
+            tenant.setEsIndex("harness-" + listener + "-tenant-" + t);
+            tenantsById.put(tenant.getTenantId(), tenant);
+
+            SyntheticAlertGenerator generator = new SyntheticAlertGenerator(t);
+            for (ToolTypes tool : TOOLS) {
+                Path file = workDir.resolve(tenant.getTenantId() + "-" + tool + ".json");
+                files.put(tenant.getTenantId() + "/" + tool,
+                    generator.writeAlertFile(tool, alertsPerEvent, duplicateRatio, file));
+            }
+        }
+        when(tenantRepository.findByTenantId(anyString()))
+            .thenAnswer(invocation -> tenantsById.get(invocation.getArgument(0, String.class)));
+
+        for (MessageListenerContainer container : listenerRegistry.getListenerContainers()) {
+            ContainerTestUtils.waitForAssignment(container, broker.getPartitionsPerTopic());
+        }
+
+        Map<String, Long> sentNanos = new ConcurrentHashMap<>();
+        Map<String, Long> ackedNanos = new ConcurrentHashMap<>();
+        Map<String, Long> esRequestsBefore = esRequestCounts();
+        try (Consumer<String, String> ackConsumer = ackConsumer(broker)) {
+            long start = System.nanoTime();
+            for (int i = 0; i < events; i++) {
+                // Tenants and tools rotate, so the first round of each pair writes new findings
+                // and later rounds re-scan the same file.
+                String tenantId = "T" + (i % tenants);
+                ToolTypes tool = TOOLS[(i / tenants) % TOOLS.length];
+                ParseRequestEvent event = new ParseRequestEvent(new ParseRequestEventPayload(
+                    tool, tenantId, files.get(tenantId + "/" + tool).toString()));
+                sentNanos.put(event.getEventId(), System.nanoTime());
+                kafkaTemplate.send(PARSE_TOPIC, tenantId, objectMapper.writeValueAsBytes(event));
+            }
+            kafkaTemplate.flush();
+
+            long deadline = System.nanoTime() + timeout.toNanos();
+            while (ackedNanos.size() < events && System.nanoTime() < deadline) {
+                for (ConsumerRecord<String, String> record : ackConsumer.poll(Duration.ofMillis(200))) {
+                    long receivedAt = System.nanoTime();
+                    String jobId = objectMapper.readTree(record.value()).path("payload").path("jobId").asText();
+                    if (sentNanos.containsKey(jobId)) {
+                        ackedNanos.putIfAbsent(jobId, receivedAt);
+                    }
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+
+            report(listener, sentNanos, ackedNanos, elapsed, esRequestsBefore);
+            assertEquals(events, ackedNanos.size(), "events acknowledged within " + timeout);
+        }
+    }
+
+    private Consumer<String, String> ackConsumer(EmbeddedKafkaBroker broker) {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("parser-harness-acks", "true", broker);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        KafkaConsumer<String, String> consumer = new KafkaConsumer<>(props);
+        broker.consumeFromAnEmbeddedTopic(consumer, ACK_TOPIC);
+        return consumer;
+    }
+
+    private static Map<String, Long> esRequestCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        for (String operation : List.of("bulk", "search", "msearch", "mget", "refresh")) {
+            counts.put(operation, ELASTICSEARCH.requestCount(operation));
+        }
+        return counts;
+    }
+
+    private void report(String listener, Map<String, Long> sentNanos, Map<String, Long> ackedNanos,
+                        long elapsedNanos, Map<String, Long> esRequestsBefore) {
+        List<Long> latencies = new ArrayList<>(ackedNanos.size());
+        for (Map.Entry<String, Long> acked : ackedNanos.entrySet()) {
+            latencies.add(acked.getValue() - sentNanos.get(acked.getKey()));
+        }
+        Collections.sort(latencies);
+
+        double seconds = elapsedNanos / 1e9;
+        System.out.println("[ParserLoadHarness] listener=" + listener + " events=" + ackedNanos.size() + "/" + events
+            + " tenants=" + tenants + " alertsPerEvent=" + alertsPerEvent + " duplicateRatio=" + duplicateRatio);
+        System.out.printf("[ParserLoadHarness] %.1f events/sec, %.0f alerts/sec over %.1fs%n",
+            ackedNanos.size() / seconds, (long) ackedNanos.size() * alertsPerEvent / seconds, seconds);
+        System.out.printf("[ParserLoadHarness] event-to-ack latency p50=%dms p99=%dms max=%dms%n",
+            percentileMillis(latencies, 0.50), percentileMillis(latencies, 0.99), percentileMillis(latencies, 1.0));
+        Map<String, Long> esRequests = esRequestCounts();
+        esRequests.replaceAll((operation, count) -> count - esRequestsBefore.get(operation));
+        System.out.println("[ParserLoadHarness] ES requests: bulk=" + esRequests.get("bulk")
+            + " search=" + esRequests.get("search") + " msearch=" + esRequests.get("msearch")
+            + " mget=" + esRequests.get("mget") + " refresh=" + esRequests.get("refresh"));
+    }
+
+    private static long percentileMillis(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1))) / 1_000_000;
+    }
+}
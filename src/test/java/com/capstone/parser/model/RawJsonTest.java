@@ -0,0 +1,109 @@
+package com.capstone.parser.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RawJsonTest {
+
+    private static final RawJson ALERT = new RawJson("{"
+        + "\"number\":42,"
+        + "\"score\":7.5,"
+        + "\"big\":123456789012345678901234567890,"
+        + "\"state\":\"open\","
+        + "\"dismissed\":false,"
+        + "\"fixed\":true,"
+        + "\"ticket\":null,"
+        + "\"rule\":{\"id\":\"js/xss\",\"number\":1},"
+        + "\"tags\":[\"security\",{\"number\":2}]"
+        + "}");
+
+    @Test
+    void getScalarReadsTopLevelScalars() {
+        assertEquals(42, ALERT.getScalar("number"));
+        assertEquals(7.5, ALERT.getScalar("score"));
+        assertEquals(new BigInteger("123456789012345678901234567890"), ALERT.getScalar("big"));
+        assertEquals("open", ALERT.getScalar("state"));
+        assertEquals(false, ALERT.getScalar("dismissed"));
+        assertEquals(true, ALERT.getScalar("fixed"));
+    }
+
+    @Test
+    void getScalarIsNullForMissingNullAndNestedValues() {
+        assertNull(ALERT.getScalar("ticket"));
+        assertNull(ALERT.getScalar("rule"));
+        assertNull(ALERT.getScalar("tags"));
+        assertNull(ALERT.getScalar("id"));
+        assertNull(ALERT.getScalar("absent"));
+    }
+
+    @Test
+    void getScalarDoesNotMatchFieldsOfNestedObjects() {
+        RawJson json = new RawJson("{\"rule\":{\"number\":1},\"items\":[{\"number\":2}],\"number\":3}");
+        assertEquals(3, json.getScalar("number"));
+
+        RawJson nestedOnly = new RawJson("{\"rule\":{\"number\":1}}");
+        assertNull(nestedOnly.getScalar("number"));
+    }
+
+    @Test
+    void getScalarOfNonObjectIsNull() {
+        assertNull(new RawJson("[1,2,3]").getScalar("number"));
+        assertNull(new RawJson("\"text\"").getScalar("number"));
+    }
+
+    @Test
+    void getScalarRejectsInvalidJson() {
+        assertThrows(UncheckedIOException.class, () -> new RawJson("{\"number\":").getScalar("number"));
+    }
+
+    @Test
+    void getFieldsKeepsValuesAsRawJsonInDocumentOrder() {
+        Map<String, RawJson> fields = ALERT.getFields();
+
+        assertEquals(List.of("number", "score", "big", "state", "dismissed", "fixed", "ticket", "rule", "tags"),
+            List.copyOf(fields.keySet()));
+        assertEquals("42", fields.get("number").toString());
+        assertEquals("\"open\"", fields.get("state").toString());
+        assertEquals("null", fields.get("ticket").toString());
+        assertEquals("{\"id\":\"js/xss\",\"number\":1}", fields.get("rule").toString());
+        assertEquals("[\"security\",{\"number\":2}]", fields.get("tags").toString());
+        assertTrue(new RawJson("[1]").getFields().isEmpty());
+    }
+
+    @Test
+    void sameValueIgnoresKeyOrderWhitespaceAndNumberFormat() {
+        RawJson stored = new RawJson("{\"a\":1,\"b\":{\"c\":[1.5,\"x\"],\"d\":null}}");
+
+        assertTrue(stored.sameValueAs(new RawJson("{ \"b\": {\"d\": null, \"c\": [1.50, \"x\"]}, \"a\": 1.0 }")));
+        assertTrue(new RawJson("1e2").sameValueAs(new RawJson("100")));
+        assertFalse(stored.sameValueAs(new RawJson("{\"a\":1,\"b\":{\"c\":[\"x\",1.5],\"d\":null}}")));
+        assertFalse(new RawJson("1").sameValueAs(new RawJson("\"1\"")));
+        assertFalse(stored.sameValueAs(null));
+    }
+
+    @Test
+    void serializesRawAndDeserializesByCopyingTokens() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        Holder holder = new Holder();
+        holder.blob = new RawJson("{\"a\":[1,{\"b\":null}],\"c\":\"d\"}");
+
+        String written = mapper.writeValueAsString(holder);
+        assertEquals("{\"blob\":{\"a\":[1,{\"b\":null}],\"c\":\"d\"}}", written);
+        assertEquals(holder.blob, mapper.readValue(written, Holder.class).blob);
+    }
+
+    static class Holder {
+        public RawJson blob;
+    }
+}
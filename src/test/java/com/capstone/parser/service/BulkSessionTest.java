@@ -0,0 +1,226 @@
+package com.capstone.parser.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.OperationType;
+
+import com.capstone.parser.config.DedupProperties;
+import com.capstone.parser.config.ElasticProperties;
+import com.capstone.parser.enums.RefreshPolicy;
+import com.capstone.parser.model.Finding;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BulkSessionTest {
+
+    private static final String INDEX = "tenant-1-findings";
+
+    private ElasticsearchClient esClient;
+    private BulkIndexService owner;
+    private ElasticProperties.Bulk limits;
+    private ParserMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        esClient = mock(ElasticsearchClient.class);
+        owner = mock(BulkIndexService.class);
+        limits = new ElasticProperties.Bulk();
+        metrics = new ParserMetrics(new SimpleMeterRegistry(), new DedupCache(new DedupProperties()));
+    }
+
+    @Test
+    void reportsOnlyTheItemsEsRejected() throws Exception {
+        when(esClient.bulk(any(BulkRequest.class))).thenReturn(response(ok("a"), rejected("b"), ok("c")));
+        BulkSession session = session(RefreshPolicy.NONE);
+
+        session.update("a", Map.of("state", "FIXED"));
+        session.update("b", Map.of("state", "FIXED"));
+        session.index(finding("c"));
+        BulkResult result = session.finish();
+
+        assertEquals(2, result.getSucceeded());
+        assertEquals(List.of(new BulkResult.Failure("b", "mapper_parsing_exception: failed to parse [state]")),
+            result.getFailures());
+        assertEquals(Set.of("b"), result.failedIds());
+        verify(esClient, times(1)).bulk(any(BulkRequest.class));
+    }
+
+    @Test
+    void createOfAnExistingIdIsReportedAsExistingNotFailed() throws Exception {
+        when(esClient.bulk(any(BulkRequest.class))).thenReturn(response(created("a"), conflict(OperationType.Create, "b"),
+            conflict(OperationType.Update, "c")));
+        BulkSession session = session(RefreshPolicy.NONE);
+
+        session.create(finding("a"));
+        session.create(finding("b"));
+        session.update("c", Map.of("state", "FIXED"), new DocVersion(4, 1));
+        BulkResult result = session.finish();
+
+        assertEquals(1, result.getSucceeded());
+        assertEquals(Set.of("b"), result.getAlreadyExisting());
+        assertEquals(Set.of("c"), result.failedIds());
+
+        ArgumentCaptor<BulkRequest> request = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(esClient).bulk(request.capture());
+        assertTrue(request.getValue().operations().get(0).isCreate());
+        assertEquals(4L, request.getValue().operations().get(2).update().ifSeqNo());
+        assertEquals(1L, request.getValue().operations().get(2).update().ifPrimaryTerm());
+    }
+
+    @Test
+    void failedRequestFailsEveryOperationInIt() throws Exception {
+        when(esClient.bulk(any(BulkRequest.class))).thenThrow(new IOException("Connection refused"));
+        BulkSession session = session(RefreshPolicy.NONE);
+
+        session.index(finding("a"));
+        session.update("b", Map.of("ticketId", "JIRA-1"));
+        session.updateByScript("c", "ctx._source.state = params.state", Map.of("state", "OPEN"));
+        BulkResult result = session.finish();
+
+        assertEquals(0, result.getSucceeded());
+        assertEquals(List.of(
+            new BulkResult.Failure("a", "Connection refused"),
+            new BulkResult.Failure("b", "Connection refused"),
+            new BulkResult.Failure("c", "Connection refused")), result.getFailures());
+        assertFalse(result.isRefreshed());
+    }
+
+    @Test
+    void failuresAccumulateAcrossFlushes() throws Exception {
+        limits.setMaxActions(2);
+        when(esClient.bulk(any(BulkRequest.class)))
+            .thenReturn(response(ok("a"), rejected("b")))
+            .thenReturn(response(ok("c")));
+        BulkSession session = session(RefreshPolicy.NONE);
+
+        session.update("a", Map.of("state", "FIXED"));
+        session.update("b", Map.of("state", "FIXED"));
+        assertFalse(session.flushNow());
+
+        session.update("c", Map.of("state", "FIXED"));
+        assertFalse(session.flushNow());
+        BulkResult result = session.finish();
+
+        assertEquals(2, result.getSucceeded());
+        assertEquals(Set.of("b"), result.failedIds());
+        verify(esClient, times(2)).bulk(any(BulkRequest.class));
+    }
+
+    @Test
+    void flushNowIsTrueWhileEveryWriteWentThrough() throws Exception {
+        when(esClient.bulk(any(BulkRequest.class))).thenReturn(response(ok("a")));
+        BulkSession session = session(RefreshPolicy.NONE);
+
+        assertTrue(session.flushNow());
+        verify(esClient, never()).bulk(any(BulkRequest.class));
+
+        session.update("a", Map.of("state", "FIXED"));
+        assertTrue(session.flushNow());
+        assertTrue(session.finish().getFailures().isEmpty());
+    }
+
+    @Test
+    void onlyTheLastRequestWaitsForRefresh() throws Exception {
+        when(esClient.bulk(any(BulkRequest.class)))
+            .thenReturn(response(ok("a")))
+            .thenReturn(response(ok("b")));
+        BulkSession session = session(RefreshPolicy.WAIT_FOR);
+
+        session.update("a", Map.of("state", "FIXED"));
+        session.flushNow();
+        session.update("b", Map.of("state", "FIXED"));
+        BulkResult result = session.finish();
+
+        ArgumentCaptor<BulkRequest> requests = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(esClient, times(2)).bulk(requests.capture());
+        assertNull(requests.getAllValues().get(0).refresh());
+        assertEquals(Refresh.WaitFor, requests.getAllValues().get(1).refresh());
+        assertTrue(result.isRefreshed());
+    }
+
+    @Test
+    void rejectedFinalRequestIsNotReportedAsRefreshed() throws Exception {
+        when(esClient.bulk(any(BulkRequest.class))).thenThrow(new IOException("Connection reset"));
+        BulkSession session = session(RefreshPolicy.WAIT_FOR);
+
+        session.update("a", Map.of("state", "FIXED"));
+
+        assertFalse(session.finish().isRefreshed());
+    }
+
+    @Test
+    void finishIsIdempotentAndEndsTheSession() throws Exception {
+        when(esClient.bulk(any(BulkRequest.class))).thenReturn(response(ok("a")));
+        BulkSession session = session(RefreshPolicy.NONE);
+        session.update("a", Map.of("state", "FIXED"));
+
+        BulkResult first = session.finish();
+        assertSame(first, session.finish());
+        session.close();
+
+        verify(owner, times(1)).release(session);
+        verify(esClient, times(1)).bulk(any(BulkRequest.class));
+        assertThrows(IllegalStateException.class, () -> session.update("b", Map.of("state", "FIXED")));
+    }
+
+    private BulkSession session(RefreshPolicy refreshPolicy) {
+        return new BulkSession(esClient, new ObjectMapper(), owner, INDEX, limits, refreshPolicy, metrics);
+    }
+
+    private static Finding finding(String id) {
+        Finding finding = new Finding();
+        finding.setId(id);
+        return finding;
+    }
+
+    private static BulkResponse response(BulkResponseItem... items) {
+        boolean errors = false;
+        for (BulkResponseItem item : items) {
+            errors |= item.error() != null;
+        }
+        boolean anyErrors = errors;
+        return BulkResponse.of(r -> r.took(3).errors(anyErrors).items(List.of(items)));
+    }
+
+    private static BulkResponseItem ok(String id) {
+        return BulkResponseItem.of(i -> i.operationType(OperationType.Update).index(INDEX).id(id).status(200));
+    }
+
+    private static BulkResponseItem created(String id) {
+        return BulkResponseItem.of(i -> i.operationType(OperationType.Create).index(INDEX).id(id).status(201));
+    }
+
+    private static BulkResponseItem conflict(OperationType operationType, String id) {
+        return BulkResponseItem.of(i -> i.operationType(operationType).index(INDEX).id(id).status(409)
+            .error(e -> e.type("version_conflict_engine_exception").reason("version conflict")));
+    }
+
+    private static BulkResponseItem rejected(String id) {
+        return BulkResponseItem.of(i -> i.operationType(OperationType.Update).index(INDEX).id(id).status(400)
+            .error(e -> e.type("mapper_parsing_exception").reason("failed to parse [state]")));
+    }
+}
@@ -0,0 +1,167 @@
+package com.capstone.parser.service;
+
+import com.capstone.parser.config.DedupProperties;
+import com.capstone.parser.enums.ToolTypes;
+import com.capstone.parser.model.Finding;
+import com.capstone.parser.service.fingerprint.Fingerprint;
+import com.capstone.parser.service.fingerprint.FingerprintMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DedupCacheTest {
+
+    private DedupProperties properties;
+    private DedupCache cache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new DedupProperties();
+        properties.getCache().setEnabled(true);
+        properties.getCache().setMaxEntries(3);
+        properties.getCache().setMaxFindings(10);
+        properties.getCache().setTtl(Duration.ofMinutes(10));
+        cache = new DedupCache(properties);
+    }
+
+    @Test
+    void checkoutTakesTheStateOutOfTheCache() {
+        DedupState state = state("idx-a", ToolTypes.CODE_SCAN, 2);
+        cache.checkin(state);
+        assertTrue(cache.contains("idx-a", ToolTypes.CODE_SCAN));
+
+        assertSame(state, cache.checkout("idx-a", ToolTypes.CODE_SCAN));
+        assertFalse(cache.contains("idx-a", ToolTypes.CODE_SCAN));
+        assertNull(cache.checkout("idx-a", ToolTypes.CODE_SCAN));
+
+        DedupCache.Stats stats = cache.getStats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0, stats.entries());
+        assertEquals(0, stats.findings());
+    }
+
+    @Test
+    void statesAreKeyedByIndexAndTool() {
+        cache.checkin(state("idx-a", ToolTypes.CODE_SCAN, 1));
+
+        assertNull(cache.checkout("idx-a", ToolTypes.DEPENDABOT));
+        assertNull(cache.checkout("idx-b", ToolTypes.CODE_SCAN));
+        assertTrue(cache.contains("idx-a", ToolTypes.CODE_SCAN));
+    }
+
+    @Test
+    void expiredStateIsNotReturned() {
+        long loadedAt = System.nanoTime() - Duration.ofMinutes(5).toNanos();
+        cache.checkin(state("idx-a", ToolTypes.CODE_SCAN, 1, loadedAt));
+        assertTrue(cache.contains("idx-a", ToolTypes.CODE_SCAN));
+
+        properties.getCache().setTtl(Duration.ofMinutes(1));
+
+        assertFalse(cache.contains("idx-a", ToolTypes.CODE_SCAN));
+        assertNull(cache.checkout("idx-a", ToolTypes.CODE_SCAN));
+        assertEquals(1, cache.getStats().expirations());
+        assertEquals(1, cache.getStats().misses());
+        assertEquals(0, cache.getStats().findings());
+    }
+
+    @Test
+    void expiredStateIsNotCheckedIn() {
+        long loadedAt = System.nanoTime() - Duration.ofMinutes(11).toNanos();
+        cache.checkin(state("idx-a", ToolTypes.CODE_SCAN, 1, loadedAt));
+
+        assertEquals(0, cache.getStats().entries());
+    }
+
+    @Test
+    void incompleteAndOversizedStatesAreNotCached() {
+        cache.checkin(new DedupState("idx-a", ToolTypes.CODE_SCAN, findings(1), false));
+        cache.checkin(state("idx-b", ToolTypes.CODE_SCAN, 11));
+
+        assertEquals(0, cache.getStats().entries());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedOverMaxEntries() {
+        cache.checkin(state("idx-a", ToolTypes.CODE_SCAN, 1));
+        cache.checkin(state("idx-b", ToolTypes.CODE_SCAN, 1));
+        cache.checkin(state("idx-c", ToolTypes.CODE_SCAN, 1));
+        // Touch idx-a so idx-b becomes the eldest entry.
+        cache.checkin(cache.checkout("idx-a", ToolTypes.CODE_SCAN));
+        cache.checkin(state("idx-d", ToolTypes.CODE_SCAN, 1));
+
+        assertTrue(cache.contains("idx-a", ToolTypes.CODE_SCAN));
+        assertFalse(cache.contains("idx-b", ToolTypes.CODE_SCAN));
+        assertTrue(cache.contains("idx-c", ToolTypes.CODE_SCAN));
+        assertTrue(cache.contains("idx-d", ToolTypes.CODE_SCAN));
+        assertEquals(1, cache.getStats().evictions());
+    }
+
+    @Test
+    void evictsOverMaxFindings() {
+        cache.checkin(state("idx-a", ToolTypes.CODE_SCAN, 6));
+        cache.checkin(state("idx-b", ToolTypes.CODE_SCAN, 6));
+
+        assertFalse(cache.contains("idx-a", ToolTypes.CODE_SCAN));
+        assertTrue(cache.contains("idx-b", ToolTypes.CODE_SCAN));
+        assertEquals(6, cache.getStats().findings());
+    }
+
+    @Test
+    void checkinReplacesTheEntryOfTheSameKey() {
+        cache.checkin(state("idx-a", ToolTypes.CODE_SCAN, 4));
+        DedupState newer = state("idx-a", ToolTypes.CODE_SCAN, 5);
+        cache.checkin(newer);
+
+        assertEquals(1, cache.getStats().entries());
+        assertEquals(5, cache.getStats().findings());
+        assertSame(newer, cache.checkout("idx-a", ToolTypes.CODE_SCAN));
+    }
+
+    @Test
+    void invalidateDropsEntries() {
+        cache.checkin(state("idx-a", ToolTypes.CODE_SCAN, 2));
+        cache.checkin(state("idx-b", ToolTypes.CODE_SCAN, 3));
+
+        cache.invalidate("idx-a", ToolTypes.CODE_SCAN);
+        assertFalse(cache.contains("idx-a", ToolTypes.CODE_SCAN));
+        assertEquals(3, cache.getStats().findings());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.getStats().entries());
+        assertEquals(0, cache.getStats().findings());
+    }
+
+    @Test
+    void disabledCacheHoldsNothing() {
+        properties.getCache().setEnabled(false);
+        cache.checkin(state("idx-a", ToolTypes.CODE_SCAN, 1));
+
+        assertFalse(cache.contains("idx-a", ToolTypes.CODE_SCAN));
+        assertNull(cache.checkout("idx-a", ToolTypes.CODE_SCAN));
+        assertEquals(0, cache.getStats().misses());
+    }
+
+    private static DedupState state(String esIndex, ToolTypes toolType, int size) {
+        return new DedupState(esIndex, toolType, findings(size));
+    }
+
+    private static DedupState state(String esIndex, ToolTypes toolType, int size, long loadedAtNanos) {
+        return new DedupState(esIndex, toolType, findings(size), true, loadedAtNanos);
+    }
+
+    private static FingerprintMap<Finding> findings(int size) {
+        FingerprintMap<Finding> findings = new FingerprintMap<>();
+        for (int i = 0; i < size; i++) {
+            findings.put(new Fingerprint(i, i + 1), new Finding());
+        }
+        return findings;
+    }
+}
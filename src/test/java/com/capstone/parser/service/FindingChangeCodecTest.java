@@ -0,0 +1,58 @@
+package com.capstone.parser.service;
+
+import com.capstone.parser.enums.FindingChangeType;
+import com.capstone.parser.service.processor.JobResult.FindingChange;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FindingChangeCodecTest {
+
+    @Test
+    void roundTripsEveryChangeTypeInOrder() {
+        List<FindingChange> changes = List.of(
+            new FindingChange("a1b2c3", FindingChangeType.NEW),
+            new FindingChange("d4e5f6", FindingChangeType.UPDATED),
+            new FindingChange("0a1b2c", FindingChangeType.UNCHANGED),
+            new FindingChange("a1b2c3", FindingChangeType.UNCHANGED));
+
+        String encoded = FindingChangeCodec.encode(changes);
+
+        assertEquals("Na1b2c3\nUd4e5f6\nS0a1b2c\nSa1b2c3", encoded);
+        assertEquals(changes, FindingChangeCodec.decode(encoded));
+    }
+
+    @Test
+    void roundTripsIdsWithSeparatorLikeCharacters() {
+        List<FindingChange> changes = List.of(
+            new FindingChange("N", FindingChangeType.UPDATED),
+            new FindingChange("x|y:z", FindingChangeType.NEW),
+            new FindingChange("7f3e-9c21", FindingChangeType.UNCHANGED));
+
+        assertEquals(changes, FindingChangeCodec.decode(FindingChangeCodec.encode(changes)));
+    }
+
+    @Test
+    void emptyListEncodesToEmptyText() {
+        assertEquals("", FindingChangeCodec.encode(List.of()));
+        assertTrue(FindingChangeCodec.decode("").isEmpty());
+        assertTrue(FindingChangeCodec.decode(null).isEmpty());
+    }
+
+    @Test
+    void decodeAppendsToTheGivenList() {
+        List<FindingChange> into = new ArrayList<>();
+        FindingChangeCodec.decode("Nfirst", into);
+        FindingChangeCodec.decode("", into);
+        FindingChangeCodec.decode("Usecond\nSthird", into);
+
+        assertEquals(List.of(
+            new FindingChange("first", FindingChangeType.NEW),
+            new FindingChange("second", FindingChangeType.UPDATED),
+            new FindingChange("third", FindingChangeType.UNCHANGED)), into);
+    }
+}
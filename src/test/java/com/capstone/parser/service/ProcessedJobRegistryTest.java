@@ -0,0 +1,212 @@
+package com.capstone.parser.service;
+
+import com.capstone.parser.config.ProcessedJobProperties;
+import com.capstone.parser.enums.FindingChangeType;
+import com.capstone.parser.enums.ToolTypes;
+import com.capstone.parser.model.ProcessedJob;
+import com.capstone.parser.repository.ProcessedJobRepository;
+import com.capstone.parser.repository.ProcessedJobRepository.ProcessedJobSummary;
+import com.capstone.parser.service.processor.JobResult;
+import com.capstone.parser.service.processor.JobResult.FindingChange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProcessedJobRegistryTest {
+
+    private static final String TENANT = "tenant-1";
+    private static final String INDEX = "tenant-1-findings";
+    private static final ToolTypes TOOL = ToolTypes.CODE_SCAN;
+
+    @TempDir
+    Path dir;
+
+    private ProcessedJobRepository repository;
+    private ProcessedJobRegistry registry;
+    private String file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        repository = mock(ProcessedJobRepository.class);
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+        ProcessedJobProperties properties = new ProcessedJobProperties();
+        properties.setTtl(Duration.ofDays(1));
+        registry = spy(new ProcessedJobRegistry(repository, properties));
+        file = write("alerts.json", "[{\"number\":1},{\"number\":2}]");
+    }
+
+    @Test
+    void digestIsSha256OfTheFileBytes() throws Exception {
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+            registry.digestFile(write("abc.txt", "abc")));
+    }
+
+    @Test
+    void sameEventIsAnsweredWithItsRecordedResult() throws Exception {
+        when(repository.findById("event-1"))
+            .thenReturn(Optional.of(job("event-1", TENANT, INDEX, LocalDateTime.now().minusHours(2), "Na\nUb\nSc")));
+
+        JobResult repeat = registry.findRepeat("event-1", TENANT, TOOL, INDEX, file);
+
+        assertNotNull(repeat);
+        assertEquals(List.of(
+            new FindingChange("a", FindingChangeType.NEW),
+            new FindingChange("b", FindingChangeType.UPDATED),
+            new FindingChange("c", FindingChangeType.UNCHANGED)), repeat.getChanges());
+        assertEquals(1, repeat.getNewCount());
+        assertEquals(1, repeat.getUpdatedCount());
+        assertEquals(1, repeat.getUnchangedCount());
+        verify(registry, never()).digestFile(anyString());
+    }
+
+    @Test
+    void sameEventOfAnotherTenantIndexOrExpiredIsNotReplayed() {
+        LocalDateTime recent = LocalDateTime.now().minusHours(2);
+        when(repository.findById("other-tenant"))
+            .thenReturn(Optional.of(job("other-tenant", "tenant-2", INDEX, recent, "Na")));
+        when(repository.findById("other-index"))
+            .thenReturn(Optional.of(job("other-index", TENANT, "other", recent, "Na")));
+        when(repository.findById("expired"))
+            .thenReturn(Optional.of(job("expired", TENANT, INDEX, LocalDateTime.now().minusDays(2), "Na")));
+
+        assertNull(registry.findRepeat("other-tenant", TENANT, TOOL, INDEX, file));
+        assertNull(registry.findRepeat("other-index", TENANT, TOOL, INDEX, file));
+        assertNull(registry.findRepeat("expired", TENANT, TOOL, INDEX, file));
+    }
+
+    @Test
+    void sameFileAsTheLastJobIsAnsweredWithItsFindingsUnchanged() throws Exception {
+        lastJob("event-0", INDEX, LocalDateTime.now().minusHours(1), Files.size(Path.of(file)),
+            registry.digestFile(file));
+        when(repository.findById("event-0"))
+            .thenReturn(Optional.of(job("event-0", TENANT, INDEX, LocalDateTime.now().minusHours(1), "Na\nUb")));
+
+        JobResult repeat = registry.findRepeat("event-1", TENANT, TOOL, INDEX, file);
+
+        assertNotNull(repeat);
+        assertEquals(List.of(
+            new FindingChange("a", FindingChangeType.UNCHANGED),
+            new FindingChange("b", FindingChangeType.UNCHANGED)), repeat.getChanges());
+        assertEquals(2, repeat.getUnchangedCount());
+    }
+
+    @Test
+    void fileOfAnotherSizeIsNotDigested() throws Exception {
+        lastJob("event-0", INDEX, LocalDateTime.now().minusHours(1), Files.size(Path.of(file)) + 1, "digest");
+
+        assertNull(registry.findRepeat("event-1", TENANT, TOOL, INDEX, file));
+        verify(registry, never()).digestFile(anyString());
+    }
+
+    @Test
+    void fileOfTheSameSizeWithOtherContentIsNotARepeat() throws Exception {
+        String other = write("other.json", "[{\"number\":1},{\"number\":3}]");
+        lastJob("event-0", INDEX, LocalDateTime.now().minusHours(1), Files.size(Path.of(other)),
+            registry.digestFile(other));
+
+        assertNull(registry.findRepeat("event-1", TENANT, TOOL, INDEX, file));
+        verify(repository, never()).findById("event-0");
+    }
+
+    @Test
+    void lastJobOfAnotherIndexOrExpiredIsNotMatched() throws Exception {
+        long size = Files.size(Path.of(file));
+        String digest = registry.digestFile(file);
+
+        lastJob("event-0", "other-index", LocalDateTime.now().minusHours(1), size, digest);
+        assertNull(registry.findRepeat("event-1", TENANT, TOOL, INDEX, file));
+
+        lastJob("event-0", INDEX, LocalDateTime.now().minusDays(2), size, digest);
+        assertNull(registry.findRepeat("event-1", TENANT, TOOL, INDEX, file));
+    }
+
+    @Test
+    void failedLookupMeansTheJobRuns() {
+        when(repository.findById("event-1")).thenThrow(new IllegalStateException("MySQL unreachable"));
+        assertNull(registry.findRepeat("event-1", TENANT, TOOL, INDEX, file));
+
+        lastJob("event-0", INDEX, LocalDateTime.now().minusHours(1), 10, "digest");
+        assertNull(registry.findRepeat("event-2", TENANT, TOOL, INDEX, dir.resolve("missing.json").toString()));
+    }
+
+    @Test
+    void recordStoresTheFileAndTheChanges() throws Exception {
+        JobResult result = JobResult.replayed(TOOL, INDEX, List.of(
+            new FindingChange("a", FindingChangeType.NEW),
+            new FindingChange("b", FindingChangeType.UNCHANGED)));
+
+        registry.record("event-1", TENANT, file, result);
+
+        ArgumentCaptor<ProcessedJob> saved = ArgumentCaptor.forClass(ProcessedJob.class);
+        verify(repository).save(saved.capture());
+        ProcessedJob job = saved.getValue();
+        assertEquals("event-1", job.getEventId());
+        assertEquals(TENANT, job.getTenantId());
+        assertEquals(TOOL, job.getTool());
+        assertEquals(INDEX, job.getEsIndex());
+        assertEquals(Files.size(Path.of(file)), job.getFileSize());
+        assertEquals(registry.digestFile(file), job.getFileDigest());
+        assertEquals("Na\nSb", job.getChanges());
+        assertNotNull(job.getProcessedAt());
+    }
+
+    @Test
+    void jobsWithRejectedWritesOrUnreadableFilesAreNotRecorded() {
+        JobResult failed = mock(JobResult.class);
+        when(failed.getWriteFailures()).thenReturn(List.of(new BulkResult.Failure("a", "mapper_parsing_exception")));
+        registry.record("event-1", TENANT, file, failed);
+
+        JobResult result = JobResult.replayed(TOOL, INDEX, List.of(new FindingChange("a", FindingChangeType.NEW)));
+        registry.record("event-2", TENANT, dir.resolve("missing.json").toString(), result);
+
+        verify(repository, never()).save(any());
+    }
+
+    private String write(String name, String content) throws Exception {
+        Path path = dir.resolve(name);
+        Files.writeString(path, content, StandardCharsets.UTF_8);
+        return path.toString();
+    }
+
+    private void lastJob(String eventId, String esIndex, LocalDateTime processedAt, long fileSize, String fileDigest) {
+        ProcessedJobSummary summary = mock(ProcessedJobSummary.class);
+        when(summary.getEventId()).thenReturn(eventId);
+        when(summary.getEsIndex()).thenReturn(esIndex);
+        when(summary.getProcessedAt()).thenReturn(processedAt);
+        when(summary.getFileSize()).thenReturn(fileSize);
+        when(summary.getFileDigest()).thenReturn(fileDigest);
+        when(repository.findFirstByTenantIdAndToolOrderByProcessedAtDesc(TENANT, TOOL)).thenReturn(summary);
+    }
+
+    private static ProcessedJob job(String eventId, String tenantId, String esIndex, LocalDateTime processedAt,
+                                    String changes) {
+        ProcessedJob job = new ProcessedJob();
+        job.setEventId(eventId);
+        job.setTenantId(tenantId);
+        job.setTool(TOOL);
+        job.setEsIndex(esIndex);
+        job.setProcessedAt(processedAt);
+        job.setChanges(changes);
+        return job;
+    }
+}
@@ -0,0 +1,95 @@
+package com.capstone.parser.service;
+
+import com.capstone.parser.config.TenantCacheProperties;
+import com.capstone.parser.model.Tenant;
+import com.capstone.parser.repository.TenantRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TenantCacheTest {
+
+    private TenantRepository repository;
+    private TenantIndexManager indexManager;
+    private TenantCacheProperties properties;
+    private TenantCache cache;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(TenantRepository.class);
+        indexManager = mock(TenantIndexManager.class);
+        properties = new TenantCacheProperties();
+        cache = new TenantCache(repository, indexManager, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void expiredUnknownTenantStaysUnknownWhileMySqlIsDown() {
+        properties.setNegativeTtl(Duration.ZERO);
+        assertNull(cache.resolve("t1"));
+        when(repository.findByTenantId("t1")).thenThrow(new IllegalStateException("MySQL unreachable"));
+
+        assertNull(cache.resolve("t1"));
+        assertNull(cache.resolve("t1"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void refreshRunningDuringInvalidationDoesNotPutTheTenantBack() throws Exception {
+        Tenant tenant = tenant("t1", "t1-findings");
+        Tenant other = tenant("t2", "t2-findings");
+        when(repository.findByTenantId("t1")).thenReturn(tenant);
+        when(repository.findByTenantId("t2")).thenReturn(other);
+        cache.resolve("t1");
+        cache.resolve("t2");
+
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        CountDownLatch refreshedAfter = new CountDownLatch(1);
+        when(repository.findByTenantId("t1")).thenAnswer(invocation -> {
+            reading.countDown();
+            invalidated.await();
+            return tenant;
+        });
+        when(repository.findByTenantId("t2")).thenAnswer(invocation -> {
+            refreshedAfter.countDown();
+            return other;
+        });
+        properties.setTtl(Duration.ZERO);
+
+        assertSame(tenant, cache.resolve("t1"));
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+        cache.invalidate("t1");
+        invalidated.countDown();
+        // The refresher runs one refresh at a time, so t1's is done once t2's has started.
+        cache.resolve("t2");
+        assertTrue(refreshedAfter.await(5, TimeUnit.SECONDS));
+
+        assertEquals(1, cache.size());
+        verify(indexManager, times(1)).forget("t1-findings");
+    }
+
+    private static Tenant tenant(String tenantId, String esIndex) {
+        Tenant tenant = new Tenant();
+        tenant.setTenantId(tenantId);
+        tenant.setEsIndex(esIndex);
+        return tenant;
+    }
+}
@@ -0,0 +1,104 @@
+package com.capstone.parser.service.fingerprint;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FingerprintMapTest {
+
+    @Test
+    void keepsEveryEntryAcrossResizes() {
+        FingerprintMap<Integer> map = new FingerprintMap<>();
+        Murmur3FingerprintEngine engine = new Murmur3FingerprintEngine();
+        int count = 10_000;
+        for (int i = 0; i < count; i++) {
+            assertNull(map.put(engine.fingerprint("finding", i), i));
+        }
+
+        assertEquals(count, map.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, map.get(engine.fingerprint("finding", i)));
+        }
+        assertNull(map.get(engine.fingerprint("finding", count)));
+    }
+
+    @Test
+    void presizedMapHoldsExpectedSize() {
+        FingerprintMap<String> map = new FingerprintMap<>(100);
+        for (int i = 0; i < 100; i++) {
+            map.put(new Fingerprint(i, -i), "v" + i);
+        }
+        assertEquals(100, map.size());
+        assertEquals("v99", map.get(new Fingerprint(99, -99)));
+    }
+
+    @Test
+    void resolvesKeysThatLandInTheSameSlot() {
+        // high ^ low is the same for all of these, so they all probe from one slot.
+        FingerprintMap<Long> map = new FingerprintMap<>();
+        for (long i = 0; i < 40; i++) {
+            map.put(new Fingerprint(i, i), i);
+        }
+
+        assertEquals(40, map.size());
+        for (long i = 0; i < 40; i++) {
+            assertEquals(i, map.get(new Fingerprint(i, i)));
+        }
+        assertNull(map.get(new Fingerprint(40, 40)));
+        assertNull(map.get(new Fingerprint(1, 2)));
+    }
+
+    @Test
+    void keysDifferingInOneHalfAreDistinct() {
+        FingerprintMap<String> map = new FingerprintMap<>();
+        map.put(new Fingerprint(1, 2), "a");
+        map.put(new Fingerprint(2, 1), "b");
+        map.put(new Fingerprint(1, 3), "c");
+
+        assertEquals("a", map.get(new Fingerprint(1, 2)));
+        assertEquals("b", map.get(new Fingerprint(2, 1)));
+        assertEquals("c", map.get(new Fingerprint(1, 3)));
+    }
+
+    @Test
+    void overwriteReturnsPreviousValueWithoutGrowing() {
+        FingerprintMap<String> map = new FingerprintMap<>();
+        Fingerprint key = new Fingerprint(0x1234L, 0x5678L);
+
+        assertNull(map.put(key, "first"));
+        assertEquals("first", map.put(key, "second"));
+        assertEquals("second", map.get(key));
+        assertEquals(1, map.size());
+        assertTrue(map.containsKey(key));
+    }
+
+    @Test
+    void rejectsNullValues() {
+        FingerprintMap<String> map = new FingerprintMap<>();
+        assertThrows(IllegalArgumentException.class, () -> map.put(new Fingerprint(1, 1), null));
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(new Fingerprint(1, 1)));
+    }
+
+    @Test
+    void forEachVisitsEveryEntryOnce() {
+        FingerprintMap<Integer> map = new FingerprintMap<>();
+        Map<Fingerprint, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            Fingerprint key = new Fingerprint(i * 31L, i);
+            map.put(key, i);
+            expected.put(key, i);
+        }
+
+        Map<Fingerprint, Integer> seen = new HashMap<>();
+        map.forEach((key, value) -> assertNull(seen.put(key, value)));
+        assertEquals(expected, seen);
+    }
+}
@@ -0,0 +1,61 @@
+package com.capstone.parser.service.fingerprint;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * The engine streams characters into the hasher; it must hash exactly the bytes of
+ * (title + "|" + number).getBytes(UTF_8), or fingerprints of stored findings drift.
+ */
+class Murmur3FingerprintEngineTest {
+
+    private final Murmur3FingerprintEngine engine = new Murmur3FingerprintEngine();
+
+    @Test
+    void hashesTheUtf8BytesOfTitleAndNumber() {
+        String[] titles = {
+            "",
+            "SQL injection in login form",
+            "caf\u00E9 \u00FCber na\u00EFve",                   // 2-byte sequences
+            "\u65E5\u672C\u8A9E\u306E\u30A2\u30E9\u30FC\u30C8", // 3-byte sequences
+            "emoji \uD83D\uDE00 and \uD83D\uDD12 pairs",        // surrogate pairs, 4-byte sequences
+            "\uD800\uDC00\uDBFF\uDFFF",                         // first and last supplementary code points
+            "\u007f\u0080\u07FF\u0800\uFFFF",                   // encoding length boundaries
+        };
+        for (String title : titles) {
+            for (Object number : new Object[] {0, 42, -1, Integer.MAX_VALUE, Long.MIN_VALUE, "GHSA-1234", null}) {
+                assertEquals(reference(title, number), engine.fingerprint(title, number), title + " / " + number);
+            }
+        }
+    }
+
+    @Test
+    void loneSurrogatesAreHashedAsQuestionMarks() {
+        String[] titles = {
+            "high \uD83D alone",
+            "low \uDE00 alone",
+            "trailing high \uD83D",
+            "reversed \uDE00\uD83D pair",
+            "\uD83D\uD83D\uDE00",                               // high, then a valid pair
+        };
+        for (String title : titles) {
+            assertEquals(reference(title, 7), engine.fingerprint(title, 7), title);
+        }
+    }
+
+    @Test
+    void nullTitleHashesLikeAnEmptyOne() {
+        assertEquals(engine.fingerprint("", 5), engine.fingerprint(null, 5));
+        assertNotEquals(engine.fingerprint("", 5), engine.fingerprint("", 6));
+    }
+
+    private static Fingerprint reference(String title, Object number) {
+        String source = title + "|" + (number == null ? "" : number);
+        byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+        return new Murmur3Hasher128().putBytes(bytes, 0, bytes.length).finish();
+    }
+}
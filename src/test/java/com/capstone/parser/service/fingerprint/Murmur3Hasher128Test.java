@@ -0,0 +1,89 @@
+package com.capstone.parser.service.fingerprint;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reference values are MurmurHash3_x64_128 (seed 0) of the reference implementation,
+ * written as h1 then h2 in hex, which is the order of {@link Fingerprint#toHex()}.
+ */
+class Murmur3Hasher128Test {
+
+    private static final byte[] INPUT = "0123456789abcdefghijklmnopqrstuv".getBytes(StandardCharsets.US_ASCII);
+
+    // Hash of the first n bytes of INPUT, for n = 0..32: every tail length with and without a full block before it.
+    private static final String[] PREFIX_HASHES = {
+        "00000000000000000000000000000000",
+        "2ac9debed546a3803a8de9e53c875e09",
+        "649e4eaa7fc1708ee6945110230f2ad6",
+        "ce68f60d7c353bdb00364cd5936bf18a",
+        "0f95757ce7f38254b4c67c9e6f12ab4b",
+        "0f04e459497f3fc1eccc6223a28dd613",
+        "88c0a92586be0a2781062d6137728244",
+        "13eb9fb82606f7a6b4ebef492fdef34e",
+        "8236039b7387354dc3369387d8964920",
+        "4c1e87519fe738ba72a17af899d597f1",
+        "3f9652ac3effeb248027a17cf2990b07",
+        "4bc3eacd29d386297cb2d9e797da9c92",
+        "66352b8cee9e3ca7a9edf0b381a8fc58",
+        "5eb2f8db4265931e801ce853e61d0ab7",
+        "07a4a014dd59f71aaaf437854cd22231",
+        "a62dd5f6c0bf23514fccf50c7c544cf0",
+        "4be06d94cf4ad1a787c35b5c63a708da",
+        "8e32612daa45f9de0800f4c206c372ee",
+        "c511d2a50b58fae82ad4543583f3b99f",
+        "ad3d7fc0b3244b47dd72c8187029f5ce",
+        "e4c83e24f076a3fdf99c8c583a8fa8d7",
+        "00ad50be807c22daeacfab2a02802a63",
+        "4764a8aa9d5558b58a526f6720f760bb",
+        "25239974a83067c20b2a29517c6a8f3a",
+        "354bbd1b765bad7a2cdc72f10e2a15d7",
+        "04c8092e7d043d06b3883500babe4bb9",
+        "aa9b44a02223a5711843b86c02ba3235",
+        "3f072b98d041b50b06bc09f4c56ee162",
+        "7ec02f7f7b6053946659e331b65838f1",
+        "2e5303ba146b2249de32a32ff658ef73",
+        "406ef30c0eb47ac8325f41c06f57e4bc",
+        "b828780c1a6e05423922739113a7e9b2",
+        "2f285ccec0edf1f7c405d66374dea50b",
+    };
+
+    @Test
+    void matchesReferenceForEveryTailLength() {
+        for (int n = 0; n < PREFIX_HASHES.length; n++) {
+            Fingerprint fp = new Murmur3Hasher128().putBytes(INPUT, 0, n).finish();
+            assertEquals(PREFIX_HASHES[n], fp.toHex(), "length " + n);
+        }
+    }
+
+    @Test
+    void matchesPublishedVectors() {
+        assertEquals("e34bbc7bbc071b6c7a433ca9c49a9347",
+            new Murmur3Hasher128().putUtf8("The quick brown fox jumps over the lazy dog").finish().toHex());
+        assertEquals("cbd8a7b341bd9b025b1e906a48ae1d19",
+            new Murmur3Hasher128().putUtf8("hello").finish().toHex());
+    }
+
+    @Test
+    void putBytesHonoursOffsetAndLength() {
+        byte[] padded = new byte[INPUT.length + 6];
+        System.arraycopy(INPUT, 0, padded, 3, INPUT.length);
+        for (int n = 0; n <= INPUT.length; n++) {
+            assertEquals(PREFIX_HASHES[n], new Murmur3Hasher128().putBytes(padded, 3, n).finish().toHex(), "length " + n);
+        }
+    }
+
+    @Test
+    void putDecimalFeedsTheBytesOfLongToString() {
+        long[] values = {0, 7, -7, 9, 10, 99, 100, 123456789, -987654321, Integer.MAX_VALUE,
+            Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE + 1, 1_000_000_000_000_000_000L};
+        for (long value : values) {
+            byte[] ascii = Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+            Fingerprint expected = new Murmur3Hasher128().putBytes(ascii, 0, ascii.length).finish();
+            assertEquals(expected, new Murmur3Hasher128().putDecimal(value).finish(), Long.toString(value));
+        }
+    }
+}
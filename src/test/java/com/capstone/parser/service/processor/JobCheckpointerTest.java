@@ -0,0 +1,139 @@
+package com.capstone.parser.service.processor;
+
+import com.capstone.parser.enums.FindingChangeType;
+import com.capstone.parser.enums.ToolTypes;
+import com.capstone.parser.model.JobCheckpoint;
+import com.capstone.parser.service.BulkSession;
+import com.capstone.parser.service.JobCheckpointService;
+import com.capstone.parser.service.processor.JobResult.FindingChange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JobCheckpointerTest {
+
+    private JobCheckpointService checkpoints;
+    private BulkSession bulkSession;
+    private JobResult result;
+
+    // What each save was called with, copied at call time: the changes are a view of the job's list.
+    private final List<Saved> saved = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        checkpoints = mock(JobCheckpointService.class);
+        bulkSession = mock(BulkSession.class);
+        when(checkpoints.getEveryAlerts()).thenReturn(100);
+        when(bulkSession.flushNow()).thenReturn(true);
+        doAnswer(invocation -> {
+            long alertsDone = invocation.getArgument(3);
+            long byteOffset = invocation.getArgument(4);
+            List<FindingChange> changes = invocation.getArgument(5);
+            saved.add(new Saved(alertsDone, byteOffset, List.copyOf(changes)));
+            return null;
+        }).when(checkpoints).save(anyString(), anyString(), anyString(), anyLong(), anyLong(), anyList());
+        result = new JobResult(ToolTypes.CODE_SCAN, "tenant-idx");
+    }
+
+    @Test
+    void checkpointsEveryNAlertsWithTheChangesSinceTheLastOne() {
+        JobCheckpointer checkpointer = checkpointer(null);
+
+        result.recordNew("f1");
+        checkpointer.afterBatch(60, 600, bulkSession);
+        assertEquals(0, saved.size());
+
+        result.recordUpdated("f2");
+        checkpointer.afterBatch(60, 1200, bulkSession);
+        result.recordUnchanged("f3");
+        checkpointer.afterBatch(50, 1700, bulkSession);
+        result.recordNew("f4");
+        checkpointer.afterBatch(50, 2200, bulkSession);
+
+        assertEquals(List.of(
+            new Saved(120, 1200, List.of(change("f1", FindingChangeType.NEW),
+                change("f2", FindingChangeType.UPDATED))),
+            new Saved(220, 2200, List.of(change("f3", FindingChangeType.UNCHANGED),
+                change("f4", FindingChangeType.NEW)))),
+            saved);
+        verify(bulkSession, times(2)).flushNow();
+    }
+
+    @Test
+    void resumedJobCountsOnFromTheCheckpoint() {
+        JobCheckpoint resumedFrom = new JobCheckpoint();
+        resumedFrom.setAlertsDone(500);
+        resumedFrom.setByteOffset(40_000);
+        result.restore(List.of(change("old1", FindingChangeType.NEW), change("old2", FindingChangeType.UNCHANGED)));
+        JobCheckpointer checkpointer = checkpointer(resumedFrom);
+
+        result.recordNew("f1");
+        checkpointer.afterBatch(99, 45_000, bulkSession);
+        assertEquals(0, saved.size());
+
+        result.recordUpdated("f2");
+        checkpointer.afterBatch(1, 45_100, bulkSession);
+
+        assertEquals(List.of(new Saved(600, 45_100,
+            List.of(change("f1", FindingChangeType.NEW), change("f2", FindingChangeType.UPDATED)))), saved);
+    }
+
+    @Test
+    void storesUnknownOffsetAsIs() {
+        JobCheckpointer checkpointer = checkpointer(null);
+
+        checkpointer.afterBatch(100, -1, bulkSession);
+
+        assertEquals(List.of(new Saved(100, -1, List.of())), saved);
+    }
+
+    @Test
+    void stopsCheckpointingOnceWritesFail() {
+        when(bulkSession.flushNow()).thenReturn(false);
+        JobCheckpointer checkpointer = checkpointer(null);
+
+        checkpointer.afterBatch(100, 1000, bulkSession);
+        checkpointer.afterBatch(100, 2000, bulkSession);
+
+        assertEquals(0, saved.size());
+        verify(bulkSession, times(1)).flushNow();
+    }
+
+    @Test
+    void stopsCheckpointingOnceTheStoreFails() {
+        doAnswer(invocation -> {
+            throw new IllegalStateException("MySQL unreachable");
+        }).when(checkpoints).save(anyString(), anyString(), anyString(), anyLong(), anyLong(), anyList());
+        JobCheckpointer checkpointer = checkpointer(null);
+
+        checkpointer.afterBatch(100, 1000, bulkSession);
+        checkpointer.afterBatch(100, 2000, bulkSession);
+
+        verify(checkpoints, times(1)).save(anyString(), anyString(), anyString(), anyLong(), anyLong(), any());
+        verify(bulkSession, times(1)).flushNow();
+    }
+
+    private JobCheckpointer checkpointer(JobCheckpoint resumedFrom) {
+        return new JobCheckpointer(checkpoints, "event-1", "/scans/alerts.json", "tenant-idx", result, resumedFrom);
+    }
+
+    private static FindingChange change(String findingId, FindingChangeType type) {
+        return new FindingChange(findingId, type);
+    }
+
+    private record Saved(long alertsDone, long byteOffset, List<FindingChange> changes) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.capstone.parser.service.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MappedFileInputStreamTest {
+
+    private static final String JSON = "[{\"a\": 1},\n {\"b\" : \"x y\"}, {\"c\":[1, 2]}]";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void slicesFromTheCurrentWindow() throws Exception {
+        try (MappedFileInputStream in = open(1024)) {
+            in.read(new byte[20], 0, 20);
+
+            assertEquals("{\"a\":1}", in.sliceJson(1, 9));
+        }
+    }
+
+    @Test
+    void slicesValuesOfEarlierWindowsAndAcrossWindowBoundaries() throws Exception {
+        try (MappedFileInputStream in = open(8)) {
+            in.readAllBytes();
+
+            assertEquals("{\"a\":1}", in.sliceJson(1, 9));
+            assertEquals("{\"b\":\"x y\"}", in.sliceJson(JSON.indexOf("{\"b"), JSON.indexOf("\"},") + 2));
+            assertEquals("{\"c\":[1,2]}", in.sliceJson(JSON.indexOf("{\"c"), JSON.length() - 1));
+        }
+    }
+
+    private MappedFileInputStream open(long windowSize) throws Exception {
+        Path file = Files.writeString(dir.resolve("alerts.json"), JSON);
+        return new MappedFileInputStream(FileChannel.open(file), 0, windowSize);
+    }
+}
@@ -0,0 +1,71 @@
+package com.capstone.parser.service.processor;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SliceableInputStreamTest {
+
+    @Test
+    void slicesCompactJsonAsIs() throws Exception {
+        String json = "[{\"number\":1,\"rule\":{\"id\":\"js/xss\"}},{\"number\":2}]";
+        SliceableInputStream in = readFully(json);
+
+        assertEquals("{\"number\":1,\"rule\":{\"id\":\"js/xss\"}}", in.sliceJson(1, 36));
+        assertEquals("{\"number\":2}", in.sliceJson(37, 49));
+    }
+
+    @Test
+    void dropsWhitespaceBetweenTokensButNotInsideStrings() throws Exception {
+        String alert = "{\n  \"number\" : 7,\r\n\t\"message\": \"a  b\\\" }\\\\ \",\n  \"tags\": [ 1, 2 ]\n}";
+        SliceableInputStream in = readFully("[ " + alert + " ]");
+
+        assertEquals("{\"number\":7,\"message\":\"a  b\\\" }\\\\ \",\"tags\":[1,2]}",
+            in.sliceJson(2, 2 + alert.getBytes(StandardCharsets.UTF_8).length));
+    }
+
+    @Test
+    void keepsMultiByteCharacters() throws Exception {
+        String alert = "{\"title\":\"caf\u00E9 \uD83D\uDE00\"}";
+        SliceableInputStream in = readFully(alert);
+
+        assertEquals(alert, in.sliceJson(0, alert.getBytes(StandardCharsets.UTF_8).length));
+    }
+
+    @Test
+    void discardedBytesCanNoLongerBeSliced() throws Exception {
+        SliceableInputStream in = readFully("[{\"a\":1},{\"b\":2}]");
+        in.discardBefore(9);
+
+        assertEquals("{\"b\":2}", in.sliceJson(9, 16));
+        assertThrows(IllegalStateException.class, () -> in.sliceJson(1, 8));
+    }
+
+    @Test
+    void keepsBytesReadOneAtATimeAndInChunks() throws Exception {
+        String json = "{\"k\":\"" + "x".repeat(40_000) + "\"}";
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        SliceableInputStream in = new SliceableInputStream(new ByteArrayInputStream(bytes));
+
+        in.read();
+        byte[] buffer = new byte[8000];
+        while (in.read(buffer, 0, buffer.length) >= 0) {
+            // read to the end like a parser filling its buffer
+        }
+
+        assertEquals(json, in.sliceJson(0, bytes.length));
+    }
+
+    private static SliceableInputStream readFully(String json) throws Exception {
+        SliceableInputStream in = new SliceableInputStream(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        try (InputStream stream = in) {
+            stream.readAllBytes();
+        }
+        return in;
+    }
+}
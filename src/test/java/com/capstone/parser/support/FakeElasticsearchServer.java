@@ -0,0 +1,563 @@
+package com.capstone.parser.support;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process HTTP stand-in for the Elasticsearch endpoints the parser calls: index
+ * exists/create, _bulk (index, create, update, delete), _mget, _pit, _search and
+ * _msearch over a point-in-time with search_after on _shard_doc, _refresh and
+ * single-document index. Queries are limited to the parser's match on toolType.
+ *
+ * Bulk creates of an existing id and updates whose if_seq_no is stale get a 409.
+ * Writes are searchable right away, so refresh is only counted. Documents are kept as
+ * raw source bytes, so a million findings fit in a benchmark heap.
+ */
+public class FakeElasticsearchServer implements AutoCloseable {
+
+    private static final String CONTENT_TYPE = "application/vnd.elasticsearch+json;compatible-with=8";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Map<String, StoredDoc>> indices = new ConcurrentHashMap<>();
+    private final Map<String, PointInTime> pointsInTime = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> requestCounts = new ConcurrentHashMap<>();
+    private final AtomicLong seqNo = new AtomicLong();
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private record StoredDoc(String id, String toolType, byte[] source, long seqNo) {
+    }
+
+    private record PointInTime(String index, List<StoredDoc> docs) {
+    }
+
+    public FakeElasticsearchServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Number of requests served for an operation ("bulk", "search", "msearch", "mget",
+     * "refresh", "pit", ...).
+     */
+    public long requestCount(String operation) {
+        LongAdder count = requestCounts.get(operation);
+        return count == null ? 0 : count.sum();
+    }
+
+    public int documentCount(String index) {
+        Map<String, StoredDoc> docs = indices.get(index);
+        if (docs == null) {
+            return 0;
+        }
+        synchronized (docs) {
+            return docs.size();
+        }
+    }
+
+    /**
+     * Drop every index, open point-in-time and counter.
+     */
+    public void reset() {
+        indices.clear();
+        pointsInTime.clear();
+        requestCounts.clear();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            String method = exchange.getRequestMethod();
+            URI uri = exchange.getRequestURI();
+            String[] path = trimSlashes(uri.getPath()).split("/");
+            try {
+                route(exchange, method, path, body);
+            } catch (Exception e) {
+                e.printStackTrace();
+                sendError(exchange, 500, "exception", String.valueOf(e.getMessage()));
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange, String method, String[] path, byte[] body) throws IOException {
+        String first = path[0];
+        String last = path[path.length - 1];
+
+        if ((path.length == 1 && first.equals("_bulk")) || (path.length == 2 && last.equals("_bulk"))) {
+            count("bulk");
+            bulk(exchange, path.length == 2 ? first : null, body);
+        } else if ((path.length == 1 && first.equals("_msearch")) || (path.length == 2 && last.equals("_msearch"))) {
+            count("msearch");
+            msearch(exchange, body);
+        } else if ((path.length == 1 && first.equals("_search")) || (path.length == 2 && last.equals("_search"))) {
+            count("search");
+            sendJson(exchange, 200, gen -> writeSearchResponse(gen, objectMapper.readTree(body)));
+        } else if ((path.length == 1 && first.equals("_mget")) || (path.length == 2 && last.equals("_mget"))) {
+            count("mget");
+            mget(exchange, path.length == 2 ? first : null, body);
+        } else if (path.length == 1 && first.equals("_pit") && method.equals("DELETE")) {
+            count("pit");
+            boolean freed = pointsInTime.remove(objectMapper.readTree(body).path("id").asText()) != null;
+            sendJson(exchange, 200, gen -> {
+                gen.writeBooleanField("succeeded", true);
+                gen.writeNumberField("num_freed", freed ? 1 : 0);
+            });
+        } else if (path.length == 2 && last.equals("_pit")) {
+            count("pit");
+            openPointInTime(exchange, first);
+        } else if (path.length == 2 && last.equals("_refresh")) {
+            count("refresh");
+            sendJson(exchange, 200, gen -> writeShards(gen));
+        } else if (path.length == 3 && path[1].equals("_doc")) {
+            count("index");
+            indexOne(exchange, first, path[2], body);
+        } else if (path.length == 1 && method.equals("HEAD")) {
+            count("exists");
+            int status = indices.containsKey(first) ? 200 : 404;
+            sendHead(exchange, status);
+        } else if (path.length == 1 && method.equals("PUT")) {
+            count("create");
+            createIndex(exchange, first);
+        } else if (path.length == 1 && method.equals("DELETE")) {
+            count("delete");
+            indices.remove(first);
+            sendJson(exchange, 200, gen -> gen.writeBooleanField("acknowledged", true));
+        } else {
+            sendError(exchange, 400, "illegal_argument_exception",
+                "Unsupported request " + method + " " + exchange.getRequestURI());
+        }
+    }
+
+    private void createIndex(HttpExchange exchange, String index) throws IOException {
+        if (indices.putIfAbsent(index, new LinkedHashMap<>()) != null) {
+            sendError(exchange, 400, "resource_already_exists_exception", "index [" + index + "] already exists");
+            return;
+        }
+        sendJson(exchange, 200, gen -> {
+            gen.writeBooleanField("acknowledged", true);
+            gen.writeBooleanField("shards_acknowledged", true);
+            gen.writeStringField("index", index);
+        });
+    }
+
+    private Map<String, StoredDoc> index(String name) {
+        return indices.computeIfAbsent(name, k -> new LinkedHashMap<>());
+    }
+
+    private void indexOne(HttpExchange exchange, String index, String id, byte[] body) throws IOException {
+        StoredDoc doc = store(index, id, body);
+        sendJson(exchange, 201, gen -> writeWriteResult(gen, index, id, doc.seqNo(), "created"));
+    }
+
+    private StoredDoc store(String index, String id, byte[] source) throws IOException {
+        String toolType = objectMapper.readTree(source).path("toolType").asText(null);
+        StoredDoc doc = new StoredDoc(id, toolType, source, seqNo.incrementAndGet());
+        Map<String, StoredDoc> docs = index(index);
+        synchronized (docs) {
+            docs.put(id, doc);
+        }
+        return doc;
+    }
+
+    private StoredDoc storeIfAbsent(String index, String id, byte[] source) throws IOException {
+        String toolType = objectMapper.readTree(source).path("toolType").asText(null);
+        Map<String, StoredDoc> docs = index(index);
+        synchronized (docs) {
+            if (docs.containsKey(id)) {
+                return null;
+            }
+            StoredDoc doc = new StoredDoc(id, toolType, source, seqNo.incrementAndGet());
+            docs.put(id, doc);
+            return doc;
+        }
+    }
+
+    private void bulk(HttpExchange exchange, String defaultIndex, byte[] body) throws IOException {
+        List<byte[]> lines = ndjsonLines(body);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        boolean errors = false;
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            gen.writeStartObject();
+            gen.writeNumberField("took", 1);
+            gen.writeFieldName("items");
+            gen.writeStartArray();
+            for (int i = 0; i < lines.size(); i++) {
+                JsonNode action = objectMapper.readTree(lines.get(i));
+                String type = action.fieldNames().next();
+                JsonNode meta = action.get(type);
+                String index = meta.path("_index").asText(defaultIndex);
+                String id = meta.hasNonNull("_id") ? meta.get("_id").asText() : UUID.randomUUID().toString();
+
+                gen.writeStartObject();
+                gen.writeFieldName(type);
+                gen.writeStartObject();
+                gen.writeStringField("_index", index);
+                gen.writeStringField("_id", id);
+                switch (type) {
+                    case "index": {
+                        StoredDoc doc = store(index, id, lines.get(++i));
+                        writeItemResult(gen, 201, "created", doc.seqNo());
+                        break;
+                    }
+                    case "create": {
+                        StoredDoc doc = storeIfAbsent(index, id, lines.get(++i));
+                        if (doc == null) {
+                            errors = true;
+                            writeItemError(gen, 409, "version_conflict_engine_exception",
+                                "[" + id + "]: version conflict, document already exists");
+                        } else {
+                            writeItemResult(gen, 201, "created", doc.seqNo());
+                        }
+                        break;
+                    }
+                    case "update": {
+                        Long ifSeqNo = meta.hasNonNull("if_seq_no") ? meta.get("if_seq_no").asLong() : null;
+                        StoredDoc updated;
+                        try {
+                            updated = update(index, id, ifSeqNo, objectMapper.readTree(lines.get(++i)));
+                        } catch (IllegalStateException e) {
+                            errors = true;
+                            writeItemError(gen, 409, "version_conflict_engine_exception", "[" + id + "]: " + e.getMessage());
+                            break;
+                        }
+                        if (updated == null) {
+                            errors = true;
+                            writeItemError(gen, 404, "document_missing_exception", "[" + id + "]: document missing");
+                        } else {
+                            writeItemResult(gen, 200, "updated", updated.seqNo());
+                        }
+                        break;
+                    }
+                    case "delete": {
+                        Map<String, StoredDoc> docs = index(index);
+                        boolean found;
+                        synchronized (docs) {
+                            found = docs.remove(id) != null;
+                        }
+                        writeItemResult(gen, found ? 200 : 404, found ? "deleted" : "not_found", seqNo.incrementAndGet());
+                        break;
+                    }
+                    default:
+                        throw new IOException("Unknown bulk action " + type);
+                }
+                gen.writeEndObject();
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+            gen.writeBooleanField("errors", errors);
+            gen.writeEndObject();
+        }
+        send(exchange, 200, out.toByteArray());
+    }
+
+    /**
+     * A partial doc is merged at the top level; a script is taken to be the parser's alert
+     * blob update and applied from its params (fields, set, unset). Throws
+     * IllegalStateException if ifSeqNo is given and the document has moved past it.
+     */
+    private StoredDoc update(String index, String id, Long ifSeqNo, JsonNode action) throws IOException {
+        Map<String, StoredDoc> docs = index(index);
+        synchronized (docs) {
+            StoredDoc existing = docs.get(id);
+            if (existing == null) {
+                return null;
+            }
+            if (ifSeqNo != null && ifSeqNo != existing.seqNo()) {
+                throw new IllegalStateException("required seqNo [" + ifSeqNo + "], current document has seqNo ["
+                    + existing.seqNo() + "]");
+            }
+            ObjectNode merged = (ObjectNode) objectMapper.readTree(existing.source());
+            JsonNode params = action.path("script").path("params");
+            JsonNode partial = action.has("script") ? params.path("fields") : action.path("doc");
+            Iterator<Map.Entry<String, JsonNode>> fields = partial.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                merged.set(field.getKey(), field.getValue());
+            }
+            if (action.has("script")) {
+                JsonNode stored = merged.path("toolAdditionalProperties");
+                ObjectNode blob = stored.isObject() ? (ObjectNode) stored : merged.putObject("toolAdditionalProperties");
+                Iterator<Map.Entry<String, JsonNode>> set = params.path("set").fields();
+                while (set.hasNext()) {
+                    Map.Entry<String, JsonNode> field = set.next();
+                    blob.set(field.getKey(), field.getValue());
+                }
+                for (JsonNode key : params.path("unset")) {
+                    blob.remove(key.asText());
+                }
+            }
+            StoredDoc doc = new StoredDoc(id, merged.path("toolType").asText(null),
+                objectMapper.writeValueAsBytes(merged), seqNo.incrementAndGet());
+            docs.put(id, doc);
+            return doc;
+        }
+    }
+
+    private void mget(HttpExchange exchange, String defaultIndex, byte[] body) throws IOException {
+        JsonNode request = objectMapper.readTree(body);
+        List<String[]> wanted = new ArrayList<>();
+        for (JsonNode id : request.path("ids")) {
+            wanted.add(new String[] {defaultIndex, id.asText()});
+        }
+        for (JsonNode doc : request.path("docs")) {
+            wanted.add(new String[] {doc.path("_index").asText(defaultIndex), doc.path("_id").asText()});
+        }
+        sendJson(exchange, 200, gen -> {
+            gen.writeFieldName("docs");
+            gen.writeStartArray();
+            for (String[] indexAndId : wanted) {
+                Map<String, StoredDoc> docs = indices.get(indexAndId[0]);
+                StoredDoc doc = null;
+                if (docs != null) {
+                    synchronized (docs) {
+                        doc = docs.get(indexAndId[1]);
+                    }
+                }
+                gen.writeStartObject();
+                gen.writeStringField("_index", indexAndId[0]);
+                gen.writeStringField("_id", indexAndId[1]);
+                gen.writeBooleanField("found", doc != null);
+                if (doc != null) {
+                    gen.writeNumberField("_version", 1);
+                    gen.writeNumberField("_seq_no", doc.seqNo());
+                    gen.writeNumberField("_primary_term", 1);
+                    gen.writeFieldName("_source");
+                    gen.writeRawValue(new String(doc.source(), StandardCharsets.UTF_8));
+                }
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        });
+    }
+
+    private void openPointInTime(HttpExchange exchange, String index) throws IOException {
+        Map<String, StoredDoc> docs = indices.get(index);
+        if (docs == null) {
+            sendError(exchange, 404, "index_not_found_exception", "no such index [" + index + "]");
+            return;
+        }
+        List<StoredDoc> snapshot;
+        synchronized (docs) {
+            snapshot = new ArrayList<>(docs.values());
+        }
+        String id = UUID.randomUUID().toString();
+        pointsInTime.put(id, new PointInTime(index, snapshot));
+        sendJson(exchange, 200, gen -> {
+            gen.writeStringField("id", id);
+            writeShards(gen);
+        });
+    }
+
+    private void msearch(HttpExchange exchange, byte[] body) throws IOException {
+        List<byte[]> lines = ndjsonLines(body);
+        List<JsonNode> searches = new ArrayList<>();
+        for (int i = 1; i < lines.size(); i += 2) {
+            searches.add(objectMapper.readTree(lines.get(i)));
+        }
+        sendJson(exchange, 200, gen -> {
+            gen.writeNumberField("took", 1);
+            gen.writeFieldName("responses");
+            gen.writeStartArray();
+            for (JsonNode search : searches) {
+                gen.writeStartObject();
+                writeSearchResponse(gen, search);
+                gen.writeNumberField("status", 200);
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        });
+    }
+
+    /**
+     * One page of a point-in-time search: hits of the snapshot matching the toolType
+     * query, after the search_after position, sorted by their position (_shard_doc).
+     */
+    private void writeSearchResponse(JsonGenerator gen, JsonNode search) throws IOException {
+        String pitId = search.path("pit").path("id").asText();
+        PointInTime pit = pointsInTime.get(pitId);
+        if (pit == null) {
+            throw new IOException("No point-in-time with id " + pitId);
+        }
+        List<StoredDoc> snapshot = pit.docs();
+        JsonNode match = search.path("query").path("match").path("toolType");
+        String toolType = match.isObject() ? match.path("query").asText(null) : match.asText(null);
+        int size = search.path("size").asInt(10);
+        JsonNode after = search.path("search_after");
+        int position = after.isArray() && !after.isEmpty() ? after.get(0).asInt() + 1 : 0;
+
+        gen.writeNumberField("took", 1);
+        gen.writeBooleanField("timed_out", false);
+        gen.writeStringField("pit_id", pitId);
+        writeShards(gen);
+        gen.writeObjectFieldStart("hits");
+        gen.writeNullField("max_score");
+        gen.writeFieldName("hits");
+        gen.writeStartArray();
+        int returned = 0;
+        for (; position < snapshot.size() && returned < size; position++) {
+            StoredDoc doc = snapshot.get(position);
+            if (toolType != null && !toolType.equalsIgnoreCase(doc.toolType())) {
+                continue;
+            }
+            gen.writeStartObject();
+            gen.writeStringField("_index", pit.index());
+            gen.writeStringField("_id", doc.id());
+            gen.writeNullField("_score");
+            gen.writeFieldName("_source");
+            gen.writeRawValue(new String(doc.source(), StandardCharsets.UTF_8));
+            gen.writeArrayFieldStart("sort");
+            gen.writeNumber(position);
+            gen.writeEndArray();
+            gen.writeEndObject();
+            returned++;
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+
+    private static void writeItemError(JsonGenerator gen, int status, String type, String reason) throws IOException {
+        gen.writeNumberField("status", status);
+        gen.writeObjectFieldStart("error");
+        gen.writeStringField("type", type);
+        gen.writeStringField("reason", reason);
+        gen.writeEndObject();
+    }
+
+    private static void writeItemResult(JsonGenerator gen, int status, String result, long seqNo) throws IOException {
+        gen.writeNumberField("status", status);
+        gen.writeStringField("result", result);
+        gen.writeNumberField("_version", 1);
+        gen.writeNumberField("_seq_no", seqNo);
+        gen.writeNumberField("_primary_term", 1);
+        writeShards(gen);
+    }
+
+    private static void writeWriteResult(JsonGenerator gen, String index, String id, long seqNo, String result)
+            throws IOException {
+        gen.writeStringField("_index", index);
+        gen.writeStringField("_id", id);
+        gen.writeNumberField("_version", 1);
+        gen.writeStringField("result", result);
+        gen.writeNumberField("_seq_no", seqNo);
+        gen.writeNumberField("_primary_term", 1);
+        writeShards(gen);
+    }
+
+    private static void writeShards(JsonGenerator gen) throws IOException {
+        gen.writeObjectFieldStart("_shards");
+        gen.writeNumberField("total", 1);
+        gen.writeNumberField("successful", 1);
+        gen.writeNumberField("skipped", 0);
+        gen.writeNumberField("failed", 0);
+        gen.writeEndObject();
+    }
+
+    private static List<byte[]> ndjsonLines(byte[] body) {
+        List<byte[]> lines = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= body.length; i++) {
+            if (i == body.length || body[i] == '\n') {
+                if (i > start) {
+                    byte[] line = new byte[i - start];
+                    System.arraycopy(body, start, line, 0, line.length);
+                    lines.add(line);
+                }
+                start = i + 1;
+            }
+        }
+        return lines;
+    }
+
+    private void count(String operation) {
+        requestCounts.computeIfAbsent(operation, k -> new LongAdder()).increment();
+    }
+
+    @FunctionalInterface
+    private interface BodyWriter {
+        void write(JsonGenerator gen) throws IOException;
+    }
+
+    private void sendJson(HttpExchange exchange, int status, BodyWriter writer) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            gen.writeStartObject();
+            writer.write(gen);
+            gen.writeEndObject();
+        }
+        send(exchange, status, out.toByteArray());
+    }
+
+    private void sendError(HttpExchange exchange, int status, String type, String reason) throws IOException {
+        sendJson(exchange, status, gen -> {
+            gen.writeObjectFieldStart("error");
+            gen.writeStringField("type", type);
+            gen.writeStringField("reason", reason);
+            gen.writeEndObject();
+            gen.writeNumberField("status", status);
+        });
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("X-Elastic-Product", "Elasticsearch");
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void sendHead(HttpExchange exchange, int status) throws IOException {
+        exchange.getResponseHeaders().set("X-Elastic-Product", "Elasticsearch");
+        exchange.sendResponseHeaders(status, -1);
+    }
+
+    private static String trimSlashes(String path) {
+        int start = 0;
+        int end = path.length();
+        while (start < end && path.charAt(start) == '/') {
+            start++;
+        }
+        while (end > start && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return path.substring(start, end);
+    }
+}
@@ -0,0 +1,145 @@
+package com.capstone.parser.support;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+
+import com.capstone.parser.config.DedupProperties;
+import com.capstone.parser.config.ElasticProperties;
+import com.capstone.parser.config.InputProperties;
+import com.capstone.parser.config.ProcessingProperties;
+import com.capstone.parser.enums.ToolTypes;
+import com.capstone.parser.service.BulkIndexService;
+import com.capstone.parser.service.DeDupService;
+import com.capstone.parser.service.DedupCache;
+import com.capstone.parser.service.ElasticSearchService;
+import com.capstone.parser.service.IndexRefreshService;
+import com.capstone.parser.service.ParserMetrics;
+import com.capstone.parser.service.TenantIndexManager;
+import com.capstone.parser.service.processor.AlertFileOpener;
+import com.capstone.parser.service.processor.AlertMappingPool;
+import com.capstone.parser.service.processor.AlertStreamReader;
+import com.capstone.parser.service.processor.CodeScanJobProcessorService;
+import com.capstone.parser.service.processor.DependabotScanJobProcessorService;
+import com.capstone.parser.service.processor.ProcessorDependencies;
+import com.capstone.parser.service.processor.ScanJobProcessorService;
+import com.capstone.parser.service.processor.SecretScanJobProcessorService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+
+import java.io.IOException;
+
+/**
+ * The parser's processing object graph (the same beans Spring would create) wired by
+ * hand against the given ES URL, for benchmarks and load runs that must not pay for
+ * a Spring context, Kafka or MySQL.
+ */
+public class ParserFixture implements AutoCloseable {
+
+    private final RestClientTransport transport;
+    private final ElasticsearchClient esClient;
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DedupCache dedupCache;
+    private final ParserMetrics metrics;
+    private final ElasticSearchService elasticSearchService;
+    private final IndexRefreshService indexRefreshService;
+    private final DeDupService deDupService;
+    private final BulkIndexService bulkIndexService;
+    private final AlertMappingPool alertMappingPool;
+    private final ProcessorDependencies dependencies;
+
+    private final CodeScanJobProcessorService codeScanProcessor;
+    private final DependabotScanJobProcessorService dependabotProcessor;
+    private final SecretScanJobProcessorService secretScanProcessor;
+
+    public ParserFixture(String esUrl) {
+        this(esUrl, new ElasticProperties(), new DedupProperties(), new ProcessingProperties());
+    }
+
+    public ParserFixture(String esUrl, ElasticProperties elasticProperties, DedupProperties dedupProperties,
+                         ProcessingProperties processingProperties) {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new BlackbirdModule());
+        RestClient restClient = RestClient.builder(HttpHost.create(esUrl)).build();
+        transport = new RestClientTransport(restClient, new JacksonJsonpMapper());
+        esClient = new ElasticsearchClient(transport);
+
+        TenantIndexManager tenantIndexManager = new TenantIndexManager(esClient, null, elasticProperties);
+        dedupCache = new DedupCache(dedupProperties);
+        metrics = new ParserMetrics(meterRegistry, dedupCache);
+        elasticSearchService = new ElasticSearchService(esClient, tenantIndexManager, metrics);
+        indexRefreshService = new IndexRefreshService(elasticSearchService, elasticProperties);
+        deDupService = new DeDupService(esClient, tenantIndexManager, elasticProperties, dedupCache,
+            dedupProperties, indexRefreshService, metrics);
+        bulkIndexService = new BulkIndexService(esClient, objectMapper, elasticProperties, metrics);
+        alertMappingPool = new AlertMappingPool(processingProperties);
+        dependencies = new ProcessorDependencies(elasticSearchService, indexRefreshService, deDupService,
+            new AlertStreamReader(objectMapper, new AlertFileOpener(new InputProperties())), alertMappingPool,
+            bulkIndexService, dedupProperties, null, processingProperties, metrics);
+
+        codeScanProcessor = new CodeScanJobProcessorService(dependencies);
+        dependabotProcessor = new DependabotScanJobProcessorService(dependencies);
+        secretScanProcessor = new SecretScanJobProcessorService(dependencies);
+    }
+
+    /**
+     * Dependencies for exercising only the alert mapping of a processor: nothing that
+     * talks to ES is set.
+     */
+    public static ProcessorDependencies mappingOnlyDependencies() {
+        return new ProcessorDependencies(null, null, null, null, null, null,
+            new DedupProperties(), null, new ProcessingProperties(), null);
+    }
+
+    public ScanJobProcessorService processorFor(ToolTypes toolType) {
+        switch (toolType) {
+            case CODE_SCAN:
+                return codeScanProcessor;
+            case DEPENDABOT:
+                return dependabotProcessor;
+            case SECRET_SCAN:
+                return secretScanProcessor;
+            default:
+                throw new IllegalArgumentException("Unknown tool type: " + toolType);
+        }
+    }
+
+    public ElasticsearchClient getEsClient() {
+        return esClient;
+    }
+
+    public MeterRegistry getMeterRegistry() {
+        return meterRegistry;
+    }
+
+    public DedupCache getDedupCache() {
+        return dedupCache;
+    }
+
+    public ParserMetrics getMetrics() {
+        return metrics;
+    }
+
+    public DeDupService getDeDupService() {
+        return deDupService;
+    }
+
+    public IndexRefreshService getIndexRefreshService() {
+        return indexRefreshService;
+    }
+
+    public ProcessorDependencies getDependencies() {
+        return dependencies;
+    }
+
+    @Override
+    public void close() throws IOException {
+        bulkIndexService.shutdown();
+        alertMappingPool.shutdown();
+        indexRefreshService.shutdown();
+        transport.close();
+    }
+}
@@ -0,0 +1,255 @@
+package com.capstone.parser.support;
+
+import com.capstone.parser.enums.ToolTypes;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.SplittableRandom;
+
+/**
+ * Writes GitHub-shaped alert files (the JSON array the parser reads) for code scanning,
+ * Dependabot and secret scanning, at any size. Alerts are streamed to disk, so files
+ * of millions of alerts need no memory.
+ *
+ * duplicateRatio is the share of alerts that repeat an earlier alert of the same file
+ * (same number and title, so the parser de-dups them); the rest are distinct. The same
+ * seed produces the same file, so writing it twice simulates a re-scan with nothing new.
+ */
+public final class SyntheticAlertGenerator {
+
+    private static final String[] STATES = {"open", "open", "open", "open", "dismissed", "fixed"};
+    private static final String[] DISMISSED_REASONS = {"false positive", "won't fix", "used in tests"};
+    private static final String[] SEVERITIES = {"critical", "high", "medium", "low"};
+    private static final String[] CODE_RULES = {
+        "Uncontrolled data used in path expression", "Database query built from user-controlled sources",
+        "Reflected cross-site scripting", "Incomplete URL substring sanitization",
+        "Use of a broken or risky cryptographic algorithm", "Server-side request forgery",
+        "Deserialization of user-controlled data", "Missing rate limiting"
+    };
+    private static final String[] PACKAGES = {
+        "lodash", "jackson-databind", "log4j-core", "minimist", "netty-codec-http", "requests",
+        "urllib3", "spring-web", "snakeyaml", "axios"
+    };
+    private static final String[] SECRET_TYPES = {
+        "github_personal_access_token", "aws_access_key_id", "slack_incoming_webhook_url",
+        "google_api_key", "stripe_api_key"
+    };
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final long seed;
+
+    public SyntheticAlertGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Write a file of the given number of alerts for the tool.
+     *
+     * @return the file
+     */
+    public Path writeAlertFile(ToolTypes tool, int alerts, double duplicateRatio, Path target) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed ^ tool.ordinal());
+        try (JsonGenerator gen = jsonFactory.createGenerator(target.toFile(), JsonEncoding.UTF8)) {
+            gen.writeStartArray();
+            int distinct = 0;
+            for (int i = 0; i < alerts; i++) {
+                int number;
+                if (distinct > 0 && random.nextDouble() < duplicateRatio) {
+                    number = 1 + random.nextInt(distinct);
+                } else {
+                    number = ++distinct;
+                }
+                // Everything but the state is derived from the number, so a repeat has the same identity.
+                SplittableRandom alertRandom = new SplittableRandom(seed * 31 + number);
+                String state = STATES[random.nextInt(STATES.length)];
+                switch (tool) {
+                    case CODE_SCAN:
+                        writeCodeScanAlert(gen, number, state, alertRandom);
+                        break;
+                    case DEPENDABOT:
+                        writeDependabotAlert(gen, number, state, alertRandom);
+                        break;
+                    case SECRET_SCAN:
+                        writeSecretScanAlert(gen, number, state, alertRandom);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown tool type: " + tool);
+                }
+            }
+            gen.writeEndArray();
+        }
+        return target;
+    }
+
+    private static void writeCodeScanAlert(JsonGenerator gen, int number, String state, SplittableRandom random)
+            throws IOException {
+        String rule = CODE_RULES[random.nextInt(CODE_RULES.length)];
+        String ruleId = "java/" + rule.toLowerCase().replace(' ', '-');
+        String severity = SEVERITIES[random.nextInt(SEVERITIES.length)];
+        String path = "src/main/java/com/example/module" + random.nextInt(50) + "/Service" + number + ".java";
+
+        gen.writeStartObject();
+        writeCommon(gen, "code-scanning", number, state, random);
+        gen.writeObjectFieldStart("rule");
+        gen.writeStringField("id", ruleId);
+        gen.writeStringField("severity", "error");
+        gen.writeStringField("security_severity_level", severity);
+        gen.writeStringField("description", rule);
+        gen.writeStringField("name", rule + " #" + number);
+        gen.writeStringField("full_description", rule + ". Building values from user-controlled input without "
+            + "validation may allow an attacker to change the meaning of the operation.");
+        gen.writeArrayFieldStart("tags");
+        gen.writeString("security");
+        gen.writeString("external/cwe/cwe-" + (20 + random.nextInt(900)));
+        gen.writeString("external/cwe/cwe-" + (20 + random.nextInt(900)));
+        gen.writeEndArray();
+        gen.writeStringField("help", "# " + rule + "\nValidate user input before using it. See the OWASP guidance.");
+        gen.writeEndObject();
+        gen.writeObjectFieldStart("tool");
+        gen.writeStringField("name", "CodeQL");
+        gen.writeNullField("guid");
+        gen.writeStringField("version", "2.20.1");
+        gen.writeEndObject();
+        gen.writeObjectFieldStart("most_recent_instance");
+        gen.writeStringField("ref", "refs/heads/main");
+        gen.writeStringField("analysis_key", ".github/workflows/codeql.yml:analyze");
+        gen.writeStringField("environment", "{\"language\":\"java\"}");
+        gen.writeStringField("category", "/language:java");
+        gen.writeStringField("state", state);
+        gen.writeStringField("commit_sha", hex(random, 40));
+        gen.writeObjectFieldStart("message");
+        gen.writeStringField("text", "This path depends on a user-provided value.");
+        gen.writeEndObject();
+        gen.writeObjectFieldStart("location");
+        gen.writeStringField("path", path);
+        int line = 1 + random.nextInt(400);
+        gen.writeNumberField("start_line", line);
+        gen.writeNumberField("end_line", line);
+        gen.writeNumberField("start_column", 9);
+        gen.writeNumberField("end_column", 42);
+        gen.writeEndObject();
+        gen.writeArrayFieldStart("classifications");
+        gen.writeEndArray();
+        gen.writeEndObject();
+        gen.writeStringField("instances_url", "https://api.github.com/repos/acme/app/code-scanning/alerts/" + number + "/instances");
+        gen.writeEndObject();
+    }
+
+    private static void writeDependabotAlert(JsonGenerator gen, int number, String state, SplittableRandom random)
+            throws IOException {
+        String pkg = PACKAGES[random.nextInt(PACKAGES.length)];
+        String severity = SEVERITIES[random.nextInt(SEVERITIES.length)];
+        String cve = "CVE-20" + (15 + random.nextInt(10)) + "-" + (1000 + random.nextInt(90000));
+        String ghsa = "GHSA-" + hex(random, 4) + "-" + hex(random, 4) + "-" + hex(random, 4);
+
+        gen.writeStartObject();
+        writeCommon(gen, "dependabot", number, state, random);
+        gen.writeObjectFieldStart("dependency");
+        gen.writeObjectFieldStart("package");
+        gen.writeStringField("ecosystem", "maven");
+        gen.writeStringField("name", pkg);
+        gen.writeEndObject();
+        gen.writeStringField("manifest_path", "services/svc" + random.nextInt(20) + "/pom.xml");
+        gen.writeStringField("scope", "runtime");
+        gen.writeEndObject();
+        gen.writeObjectFieldStart("security_advisory");
+        gen.writeStringField("ghsa_id", ghsa);
+        gen.writeStringField("cve_id", cve);
+        gen.writeStringField("summary", pkg + " vulnerable to uncontrolled resource consumption #" + number);
+        gen.writeStringField("description", "Affected versions of " + pkg + " allow a remote attacker to cause a "
+            + "denial of service through crafted input. Upgrade to the patched version.");
+        gen.writeStringField("severity", severity);
+        gen.writeArrayFieldStart("identifiers");
+        gen.writeStartObject();
+        gen.writeStringField("value", ghsa);
+        gen.writeStringField("type", "GHSA");
+        gen.writeEndObject();
+        gen.writeStartObject();
+        gen.writeStringField("value", cve);
+        gen.writeStringField("type", "CVE");
+        gen.writeEndObject();
+        gen.writeEndArray();
+        gen.writeArrayFieldStart("references");
+        gen.writeStartObject();
+        gen.writeStringField("url", "https://nvd.nist.gov/vuln/detail/" + cve);
+        gen.writeEndObject();
+        gen.writeEndArray();
+        gen.writeStringField("published_at", "2024-03-01T00:00:00Z");
+        gen.writeStringField("updated_at", "2024-06-01T00:00:00Z");
+        gen.writeNullField("withdrawn_at");
+        gen.writeObjectFieldStart("cvss");
+        gen.writeStringField("vector_string", "CVSS:3.1/AV:N/AC:L/PR:N/UI:N/S:U/C:N/I:N/A:H");
+        gen.writeNumberField("score", 1 + random.nextInt(90) / 10.0);
+        gen.writeEndObject();
+        gen.writeArrayFieldStart("cwes");
+        gen.writeStartObject();
+        gen.writeStringField("cwe_id", "CWE-" + (20 + random.nextInt(900)));
+        gen.writeStringField("name", "Uncontrolled Resource Consumption");
+        gen.writeEndObject();
+        gen.writeEndArray();
+        gen.writeEndObject();
+        gen.writeObjectFieldStart("security_vulnerability");
+        gen.writeObjectFieldStart("package");
+        gen.writeStringField("ecosystem", "maven");
+        gen.writeStringField("name", pkg);
+        gen.writeEndObject();
+        gen.writeStringField("severity", severity);
+        gen.writeStringField("vulnerable_version_range", "< 2." + random.nextInt(20) + ".0");
+        gen.writeObjectFieldStart("first_patched_version");
+        gen.writeStringField("identifier", "2." + random.nextInt(20) + ".0");
+        gen.writeEndObject();
+        gen.writeEndObject();
+        gen.writeNullField("auto_dismissed_at");
+        gen.writeEndObject();
+    }
+
+    private static void writeSecretScanAlert(JsonGenerator gen, int number, String state, SplittableRandom random)
+            throws IOException {
+        String secretType = SECRET_TYPES[random.nextInt(SECRET_TYPES.length)];
+
+        gen.writeStartObject();
+        writeCommon(gen, "secret-scanning", number, state, random);
+        gen.writeStringField("locations_url", "https://api.github.com/repos/acme/app/secret-scanning/alerts/" + number + "/locations");
+        gen.writeStringField("secret_type", secretType);
+        gen.writeStringField("secret_type_display_name", secretType.replace('_', ' ') + " #" + number);
+        gen.writeStringField("secret", "ghp_" + hex(random, 36));
+        gen.writeStringField("validity", "unknown");
+        gen.writeBooleanField("push_protection_bypassed", false);
+        gen.writeBooleanField("publicly_leaked", false);
+        gen.writeBooleanField("multi_repo", false);
+        gen.writeEndObject();
+    }
+
+    private static void writeCommon(JsonGenerator gen, String kind, int number, String state, SplittableRandom random)
+            throws IOException {
+        String created = Instant.ofEpochSecond(1_700_000_000L + random.nextInt(20_000_000)).toString();
+        gen.writeNumberField("number", number);
+        gen.writeStringField("created_at", created);
+        gen.writeStringField("updated_at", created);
+        gen.writeStringField("url", "https://api.github.com/repos/acme/app/" + kind + "/alerts/" + number);
+        gen.writeStringField("html_url", "https://github.com/acme/app/security/" + kind + "/" + number);
+        gen.writeStringField("state", state);
+        if ("dismissed".equals(state)) {
+            gen.writeStringField("dismissed_reason", DISMISSED_REASONS[random.nextInt(DISMISSED_REASONS.length)]);
+            gen.writeStringField("dismissed_at", created);
+        } else {
+            gen.writeNullField("dismissed_reason");
+            gen.writeNullField("dismissed_at");
+        }
+        gen.writeNullField("dismissed_by");
+        gen.writeNullField("dismissed_comment");
+        gen.writeNullField("fixed_at");
+    }
+
+    private static String hex(SplittableRandom random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(Character.forDigit(random.nextInt(16), 16));
+        }
+        return sb.toString();
+    }
+}